@@ -0,0 +1,94 @@
+package com.creighton_theater.theater_database;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application against an in-memory H2 database in PostgreSQL
+ * mode, created from schema.sql and filled by DatasetGenerator
+ * Each benchmark fork or load test gets its own database; nothing touches
+ * Supabase
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * The dataset size: DatasetGenerator.Volumes.SMALL unless overridden with
+     * dataset.* system properties, e.g. for every fork
+     * -Djmh.args="-jvmArgsAppend -Ddataset.students=100000"
+     */
+    static DatasetGenerator.Volumes volumes() {
+        return DatasetGenerator.Volumes.from(name -> System.getProperty("dataset." + name),
+                DatasetGenerator.Volumes.SMALL);
+    }
+
+    /**
+     * Boots the application without a web server and seeds the database
+     *
+     * @return The running application context
+     */
+    static ConfigurableApplicationContext start() {
+        return start(WebApplicationType.NONE);
+    }
+
+    /**
+     * Boots the application with its web server on a free port and seeds
+     * the database
+     *
+     * @return The running application context; local.server.port holds the port
+     */
+    static ConfigurableApplicationContext startServer() {
+        return start(WebApplicationType.SERVLET, "--server.port=0");
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                        + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.sql.init.mode=always",
+                "--spring.sql.init.schema-locations=classpath:schema.sql",
+                // The pg_trgm extension and its GIN indexes do not exist in H2
+                "--spring.sql.init.continue-on-error=true",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=warn"));
+        args.addAll(List.of(extraArgs));
+
+        // Devtools would restart the app in a new class loader and call the
+        // caller's main() again; it only reads this as a system property
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TheaterDatabaseApplication.class)
+                .web(type)
+                // As arguments, since default properties lose to application.properties
+                .run(args.toArray(String[]::new));
+
+        try {
+            DatasetGenerator.generate(context.getBean(DataSource.class), volumes());
+        } catch (SQLException e) {
+            context.close();
+            throw new IllegalStateException("Could not generate the benchmark dataset", e);
+        }
+
+        // The in-memory indexes and caches saw an empty database at startup;
+        // the eager ones are reloaded so the first measured call is not a load
+        context.getBean(CachingJdbcTemplate.class).invalidateAll();
+        context.getBean(AutocompleteIndex.class).load();
+        context.getBean(MeasurementIndex.class).refresh();
+        return context;
+    }
+}
@@ -0,0 +1,130 @@
+package com.creighton_theater.theater_database;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Row mapping, JSON serialization and query construction as the list
+ * endpoints do them
+ * queryForList benchmarks are the generic Map-per-row path the endpoints
+ * started out with, kept as a baseline for the typed RowMapper path
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataAccessBenchmark {
+
+    private static final String ACTORS = """
+            SELECT %s
+            FROM actor a
+            JOIN student s ON a.netid = s.netid
+            ORDER BY s.lastname, s.firstname, a.netid
+            """.formatted(Actor.COLUMNS);
+
+    private static final String STUDENT_PAGE = """
+            SELECT %s
+            FROM student
+            ORDER BY lastname, firstname, netid
+            LIMIT 101
+            """.formatted(Student.COLUMNS);
+
+    private static final String SHOWS = "SELECT " + Show.COLUMNS + " FROM shows ORDER BY yearsemester DESC, showname";
+
+    /** Search text for the filterBy benchmarks, from very to barely selective */
+    @State(Scope.Thread)
+    public static class Filter {
+        @Param({ "a", "ope", "Kowalski" })
+        public String value;
+    }
+
+    private ConfigurableApplicationContext context;
+    private CachingJdbcTemplate jdbc;
+    private ObjectMapper objectMapper;
+    private SubstringSearch substringSearch;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkDatabase.start();
+        jdbc = context.getBean(CachingJdbcTemplate.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        substringSearch = context.getBean(SubstringSearch.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Student> studentPageMapped() {
+        return jdbc.query(STUDENT_PAGE, Student.MAPPER);
+    }
+
+    @Benchmark
+    public List<Actor> actorsMapped() {
+        return jdbc.query(ACTORS, Actor.MAPPER);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> actorsQueryForList() {
+        return jdbc.queryForList(ACTORS);
+    }
+
+    @Benchmark
+    public byte[] actorsMappedToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(jdbc.query(ACTORS, Actor.MAPPER));
+    }
+
+    @Benchmark
+    public byte[] actorsQueryForListToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(jdbc.queryForList(ACTORS));
+    }
+
+    @Benchmark
+    public List<Show> showsCached() {
+        return jdbc.queryCached(SHOWS, Show.MAPPER);
+    }
+
+    @Benchmark
+    public List<Show> showsUncached() {
+        return jdbc.query(SHOWS, Show.MAPPER);
+    }
+
+    @Benchmark
+    public SubstringSearch.Predicate filterByPredicate(Filter filter) {
+        return substringSearch.contains("s", "student", "lastname", filter.value);
+    }
+
+    @Benchmark
+    public List<Student> filterByQuery(Filter filter) {
+        SubstringSearch.Predicate match = substringSearch.contains("", "student", "lastname", filter.value);
+        String sql = "SELECT " + Student.COLUMNS + " FROM student WHERE " + match.sql()
+                + " ORDER BY lastname, firstname";
+        return jdbc.query(sql, Student.MAPPER, match.args());
+    }
+}
@@ -0,0 +1,622 @@
+package com.creighton_theater.theater_database;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+
+/**
+ * Fills an empty database with a synthetic but plausible theater: students,
+ * actors with measurements, crew, shows with scenes and characters, scene
+ * details, crew assignments and previous roles
+ * The same volumes and seed always produce the same rows. Each row draws
+ * from its own random stream derived from the seed, so changing how many
+ * shows there are does not change the students
+ * Rows are streamed, never collected: PostgreSQL gets them through COPY,
+ * anything else (H2) through JDBC batches
+ *
+ * Used by the benchmarks and the load test, or on its own against any
+ * database created from schema.sql:
+ *   ./mvnw -Pbenchmark compile exec:exec
+ *       -Dbenchmark.main=com.creighton_theater.theater_database.DatasetGenerator
+ *       -Dbenchmark.args="--url=jdbc:postgresql://localhost/theater --user=theater --password=...
+ *                         --students=100000 --shows=5000 --scene-details=2000000"
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+public final class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COPY_BUFFER = 1 << 20;
+
+    // Share of each show's character x scene grid that is filled in
+    private static final double SCENE_DENSITY = 0.35;
+
+    static final String[] FIRST_NAMES = { "Aaliyah", "Aiden", "Amara", "Avery", "Benjamin", "Blake",
+            "Camila", "Casey", "Chloe", "Daniel", "Drew", "Elena", "Elijah", "Emerson", "Emma", "Ethan", "Finley",
+            "Gabriel", "Grace", "Hannah", "Harper", "Isaac", "Isabella", "Jordan", "Julian", "Kendall", "Layla",
+            "Liam", "Logan", "Lucas", "Maya", "Mia", "Morgan", "Noah", "Nora", "Olivia", "Owen", "Parker", "Priya",
+            "Quinn", "Riley", "Samuel", "Sawyer", "Sofia", "Taylor", "Theo", "Valentina", "Wyatt", "Zoe" };
+    static final String[] LAST_NAMES = { "Abanes", "Adeyemi", "Anderson", "Brooks", "Castillo", "Chen",
+            "Dunn", "Ellis", "Fischer", "Flores", "Garcia", "Gonzalez", "Hughes", "Ibarra", "Jackson", "Jensen",
+            "Kim", "Kowalski", "Lee", "Lopez", "Martinez", "Meyer", "Miller", "Murphy", "Nguyen", "O'Brien",
+            "Okafor", "Patel", "Ramirez", "Reyes", "Robinson", "Schmidt", "Singh", "Smith", "Sullivan", "Thompson",
+            "Tran", "Walker", "Williams", "Wilson", "Yamamoto", "Zimmerman" };
+    private static final String[] GRADES = { "Freshman", "Sophomore", "Junior", "Senior", "Graduate" };
+    private static final String[] PRONOUNS = { "she/her", "he/him", "they/them", "she/they", "he/they" };
+    private static final String[] ALLERGIES = { "Latex", "Nuts", "Fragrance", "Wool", "Adhesive", "Nickel" };
+    private static final String[] HAIR = { "Black", "Brown", "Blonde", "Red", "Auburn", "Gray", "Dyed" };
+    private static final String[] SKIN = { "Fair", "Light", "Medium", "Olive", "Tan", "Deep" };
+    private static final String[] GENRES = { "Musical", "Drama", "Comedy", "Tragedy", "Opera", "Farce" };
+    static final String[] TITLE_WORDS = { "Midsummer", "Night", "Tempest", "Garden", "Crown", "River",
+            "Winter", "Tale", "Masque", "Lantern", "Harbor", "Orchard", "Storm", "Ballad", "Mirror", "Street" };
+    private static final String[] SPECIALTIES = { "Wigs", "Makeup", "Wardrobe", "Lighting", "Sound", "Props",
+            "Rigging", "Stage management" };
+    private static final String[] ROLES = { "Dresser", "Wig runner", "Stagehand", "Light board op",
+            "Sound board op", "Props master", "Fly rail", "ASM" };
+    private static final String[] LOCATIONS = { "Stage left", "Stage right", "Upstage", "Quick-change booth",
+            "Dressing room", "Crossover" };
+    private static final String[] SETS = { "Forest", "Palace", "Street", "Tavern", "Ship", "Parlor", "Garden" };
+
+    /**
+     * How much to generate
+     *
+     * @param students      Students; about 60% are actors and a third are crew
+     * @param shows         Shows
+     * @param scenesPerShow Scenes in each show, split over two acts
+     * @param sceneDetails  character_in_scene rows, spread evenly over the shows
+     * @param crewPerShow   crew_in_show rows per show
+     * @param seed          Random seed
+     */
+    public record Volumes(int students, int shows, int scenesPerShow, long sceneDetails, int crewPerShow,
+            long seed) {
+
+        /** Enough to exercise every query in seconds */
+        public static final Volumes SMALL = new Volumes(2_000, 40, 20, 7_000, 8, 42);
+
+        /** A decade of a large department, for scale testing */
+        public static final Volumes LARGE = new Volumes(100_000, 5_000, 20, 2_000_000, 12, 42);
+
+        public Volumes {
+            if (students < 10 || shows < 1 || scenesPerShow < 1 || sceneDetails < 0 || crewPerShow < 0) {
+                throw new IllegalArgumentException("Need at least 10 students, 1 show and 1 scene per show");
+            }
+        }
+
+        /**
+         * Reads volumes from named settings, falling back to a default for
+         * any that are missing
+         * Names are students, shows, scenes-per-show, scene-details,
+         * crew-per-show and seed
+         *
+         * @param settings Looks a setting up by name, returning null if unset
+         * @param defaults Volumes to fall back to
+         * @return The volumes
+         */
+        public static Volumes from(Function<String, String> settings, Volumes defaults) {
+            return new Volumes(
+                    intSetting(settings, "students", defaults.students()),
+                    intSetting(settings, "shows", defaults.shows()),
+                    intSetting(settings, "scenes-per-show", defaults.scenesPerShow()),
+                    longSetting(settings, "scene-details", defaults.sceneDetails()),
+                    intSetting(settings, "crew-per-show", defaults.crewPerShow()),
+                    longSetting(settings, "seed", defaults.seed()));
+        }
+
+        private static int intSetting(Function<String, String> settings, String name, int fallback) {
+            return (int) longSetting(settings, name, fallback);
+        }
+
+        private static long longSetting(Function<String, String> settings, String name, long fallback) {
+            String value = settings.apply(name);
+            return value == null || value.isBlank() ? fallback : Long.parseLong(value.replace("_", "").trim());
+        }
+    }
+
+    private DatasetGenerator() {
+    }
+
+    /**
+     * Generates a dataset into an empty database
+     *
+     * @param dataSource Where to write
+     * @param volumes    How much to write
+     * @return Rows written per table, in insert order
+     * @throws SQLException          If a write fails
+     * @throws IllegalStateException If the database already has students
+     */
+    public static Map<String, Long> generate(DataSource dataSource, Volumes volumes) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return generate(connection, volumes);
+        }
+    }
+
+    /**
+     * Generates a dataset into an empty database over one connection
+     *
+     * @see #generate(DataSource, Volumes)
+     */
+    public static Map<String, Long> generate(Connection connection, Volumes volumes) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet students = statement.executeQuery("SELECT COUNT(*) FROM student")) {
+            if (students.next() && students.getLong(1) > 0) {
+                throw new IllegalStateException("Database already has students; generate into an empty one");
+            }
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            Map<String, Long> counts = new Generation(connection, volumes).run();
+            connection.commit();
+            return counts;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * The netID of the i-th generated student: three letters and five digits,
+     * like a real Creighton netID
+     *
+     * @param i The student's index
+     * @return The netID
+     */
+    public static String netID(int i) {
+        int letters = i / 100_000;
+        return new String(new char[] {
+                (char) ('a' + letters / 676 % 26), (char) ('a' + letters / 26 % 26), (char) ('a' + letters % 26) })
+                + String.format("%05d", i % 100_000);
+    }
+
+    static boolean isActor(int student) {
+        return student % 5 < 3;
+    }
+
+    static boolean isCrew(int student) {
+        return student % 3 == 0;
+    }
+
+    /**
+     * One run of the generator
+     * Each table is written in its own pass (PostgreSQL allows one COPY per
+     * connection at a time, and parents must be written before children).
+     * Passes that need the same choices, such as a show's cast, make them
+     * again from the same (stream, index) random
+     */
+    private static final class Generation {
+        private static final int STUDENT = 1, ACTOR = 2, CREW = 3, SHOW = 4, SCENE = 5, DRESSERS = 6, CAST = 7,
+                DETAILS = 8;
+
+        private final Connection connection;
+        private final Volumes v;
+        private final boolean postgres;
+
+        // Students that are actors / crew, by index
+        private final int[] actors;
+        private final int[] crew;
+
+        private final Map<String, Long> counts = new LinkedHashMap<>();
+
+        Generation(Connection connection, Volumes volumes) throws SQLException {
+            this.connection = connection;
+            this.v = volumes;
+            this.postgres = connection.isWrapperFor(BaseConnection.class);
+            actors = IntStream.range(0, v.students()).filter(DatasetGenerator::isActor).toArray();
+            crew = IntStream.range(0, v.students()).filter(DatasetGenerator::isCrew).toArray();
+        }
+
+        Map<String, Long> run() throws SQLException {
+            students();
+            actors();
+            crew();
+            shows();
+            scenes();
+            crewInShow();
+            characters();
+            sceneDetails();
+            previousRoles();
+            try (Statement statement = connection.createStatement()) {
+                // Explicit IDs do not advance the SERIAL sequence
+                statement.execute(postgres
+                        ? "SELECT setval(pg_get_serial_sequence('shows', 'showid'), " + Math.max(1, v.shows()) + ")"
+                        : "ALTER TABLE shows ALTER COLUMN showid RESTART WITH " + (v.shows() + 1));
+            }
+            return counts;
+        }
+
+        /** The random numbers for one row (or one show) of one pass */
+        private SplittableRandom random(int stream, long index) {
+            return new SplittableRandom(v.seed() * 0x9E3779B97F4A7C15L + stream * 0x100000000L + index);
+        }
+
+        private void students() throws SQLException {
+            try (Rows student = rows("student", "netid", "firstname", "lastname", "gradelevel", "pronouns",
+                    "specialnotes", "email", "allergies_sensitivities")) {
+                for (int i = 0; i < v.students(); i++) {
+                    SplittableRandom r = random(STUDENT, i);
+                    String netID = netID(i);
+                    student.add(netID, pick(r, FIRST_NAMES), pick(r, LAST_NAMES), pick(r, GRADES), pick(r, PRONOUNS),
+                            r.nextInt(10) == 0 ? "Prefers evening calls" : "", netID + "@creighton.edu",
+                            r.nextInt(8) == 0 ? pick(r, ALLERGIES) : null);
+                }
+            }
+        }
+
+        private void actors() throws SQLException {
+            try (Rows actor = rows("actor", "netid", "yearsactingexperience", "skintone", "piercings", "haircolor",
+                    "previousinjuries", "specialnotes", "height", "ringsize", "shoesize", "headcirc", "neckbase",
+                    "chest", "waist", "highhip", "lowhip", "armseyetoarmseyefront", "necktowaistfront",
+                    "armseyetoarmseyeback", "necktowaistback", "centerbacktowrist", "outsleevetowrist",
+                    "outseambelowknee", "outseamtoankle", "outseamtofloor", "othernotes")) {
+                for (int i : actors) {
+                    SplittableRandom r = random(ACTOR, i);
+                    // Measurements in inches, scaled together so a person's are consistent
+                    double build = 1 + r.nextGaussian() * 0.08;
+                    int height = 58 + r.nextInt(18);
+                    actor.add(netID(i), r.nextInt(12), pick(r, SKIN), r.nextInt(4) == 0 ? "Ears" : null,
+                            pick(r, HAIR), r.nextInt(20) == 0 ? "Sprained ankle" : null, null,
+                            height / 12 + "'" + height % 12 + "\"",
+                            String.valueOf(5 + r.nextInt(7)), String.valueOf(6 + r.nextInt(8)),
+                            measure(r, 22.5, build), measure(r, 15, build), measure(r, 36, build),
+                            measure(r, 30, build), measure(r, 36, build), measure(r, 40, build),
+                            measure(r, 13.5, build), measure(r, 16, build), measure(r, 15, build),
+                            measure(r, 17, build), measure(r, 31, build), measure(r, 24, build),
+                            measure(r, 24, build), measure(r, 39, build), measure(r, 41, build), null);
+                }
+            }
+        }
+
+        private void crew() throws SQLException {
+            try (Rows crewRows = rows("crew", "crewid", "wigtrained", "makeuptrained", "musicreading", "lighting",
+                    "sound", "studentnonstudent", "contractorhired", "specialty", "notes")) {
+                for (int i : crew) {
+                    SplittableRandom r = random(CREW, i);
+                    crewRows.add(netID(i), r.nextBoolean(), r.nextBoolean(), r.nextBoolean(),
+                            r.nextInt(4) == 0 ? "ETC Eos" : null, r.nextInt(4) == 0 ? "QLab" : null,
+                            r.nextInt(10) != 0, r.nextInt(10) == 0, pick(r, SPECIALTIES), null);
+                }
+            }
+        }
+
+        private void shows() throws SQLException {
+            try (Rows shows = rows("shows", "showid", "showname", "yearsemester", "genre", "director", "playwright")) {
+                int firstYear = 2025 - (v.shows() + 7) / 8;
+                for (int show = 1; show <= v.shows(); show++) {
+                    SplittableRandom r = random(SHOW, show);
+                    // About eight shows a year, four per semester
+                    int year = firstYear + (show - 1) / 8;
+                    shows.add(show, "The " + pick(r, TITLE_WORDS) + " " + pick(r, TITLE_WORDS) + " " + show,
+                            year + ((show - 1) % 8 < 4 ? " Spring" : " Fall"), pick(r, GENRES),
+                            pick(r, FIRST_NAMES) + " " + pick(r, LAST_NAMES),
+                            pick(r, FIRST_NAMES) + " " + pick(r, LAST_NAMES));
+                }
+            }
+        }
+
+        private void scenes() throws SQLException {
+            try (Rows scenes = rows("scene", "showid", "scenename", "act", "locationset", "song", "bookscriptpages",
+                    "crewnetid", "crewinshow")) {
+                for (int show = 1; show <= v.shows(); show++) {
+                    SplittableRandom r = random(SCENE, show);
+                    int page = 1;
+                    for (int scene = 0; scene < v.scenesPerShow(); scene++) {
+                        int pages = 2 + r.nextInt(8);
+                        scenes.add(show, sceneName(scene), scene < (v.scenesPerShow() + 1) / 2 ? 1 : 2,
+                                pick(r, SETS), r.nextInt(3) == 0 ? "Number " + (scene + 1) : null,
+                                page + "-" + (page + pages - 1), netID(pick(r, crew)),
+                                (1 + r.nextInt(4)) + " stagehands");
+                        page += pages;
+                    }
+                }
+            }
+        }
+
+        private void crewInShow() throws SQLException {
+            try (Rows crewInShow = rows("crew_in_show", "showid", "crewid", "roles")) {
+                for (int show = 1; show <= v.shows(); show++) {
+                    int[] dressers = dressers(show);
+                    for (int k = 0; k < dressers.length; k++) {
+                        crewInShow.add(show, netID(dressers[k]), ROLES[k % ROLES.length]);
+                    }
+                }
+            }
+        }
+
+        private void characters() throws SQLException {
+            try (Rows characters = rows("characters", "showid", "charactername", "netid")) {
+                for (int show = 1; show <= v.shows(); show++) {
+                    int[] cast = cast(show);
+                    for (int c = 0; c < cast.length; c++) {
+                        characters.add(show, characterName(c), netID(cast[c]));
+                    }
+                }
+            }
+        }
+
+        private void sceneDetails() throws SQLException {
+            try (Rows details = rows("character_in_scene", "showid", "scenename", "charactername", "netid",
+                    "costumechange", "costumeworn", "characterlocation", "changelocation", "changelengthoftime",
+                    "additionalnotes", "crewid")) {
+                int scenes = v.scenesPerShow();
+                for (int show = 1; show <= v.shows(); show++) {
+                    SplittableRandom r = random(DETAILS, show);
+                    int[] cast = cast(show);
+                    int[] dressers = dressers(show);
+
+                    // Selection sampling over the character x scene grid: exactly
+                    // rowsInShow(show) cells, each equally likely, in running order
+                    long cells = (long) cast.length * scenes;
+                    long needed = Math.min(rowsInShow(show), cells);
+                    String[] worn = new String[cast.length];
+                    for (long cell = 0; cell < cells && needed > 0; cell++) {
+                        if (r.nextLong(cells - cell) >= needed) {
+                            continue;
+                        }
+                        needed--;
+                        int c = (int) (cell / scenes);
+                        int scene = (int) (cell % scenes);
+
+                        String costume = "Costume " + (1 + r.nextInt(6));
+                        boolean change = worn[c] != null && !worn[c].equals(costume);
+                        worn[c] = costume;
+                        details.add(show, sceneName(scene), characterName(c), netID(cast[c]),
+                                change ? "Yes" : "No", costume, pick(r, LOCATIONS),
+                                change ? pick(r, LOCATIONS) : null,
+                                change ? String.valueOf(15 + r.nextInt(120)) : null, null,
+                                change && dressers.length > 0 ? netID(dressers[r.nextInt(dressers.length)]) : null);
+                    }
+                }
+            }
+        }
+
+        private void previousRoles() throws SQLException {
+            try (Rows previousRoles = rows("previous_roles", "netid", "showid")) {
+                for (int show = 1; show <= v.shows(); show++) {
+                    Set<Integer> seen = new HashSet<>();
+                    for (int actor : cast(show)) {
+                        if (seen.add(actor)) {
+                            previousRoles.add(netID(actor), show);
+                        }
+                    }
+                }
+            }
+        }
+
+        /** character_in_scene rows for a show, spreading the remainder over the first shows */
+        private long rowsInShow(int show) {
+            return v.sceneDetails() / v.shows() + (show <= v.sceneDetails() % v.shows() ? 1 : 0);
+        }
+
+        /** The actor playing each of a show's characters */
+        private int[] cast(int show) {
+            int characters = (int) Math.max(1, Math.ceil(rowsInShow(show) / (v.scenesPerShow() * SCENE_DENSITY)));
+            SplittableRandom r = random(CAST, show);
+            int[] cast = new int[characters];
+            for (int c = 0; c < characters; c++) {
+                cast[c] = pick(r, actors);
+            }
+            return cast;
+        }
+
+        /** The crew working a show */
+        private int[] dressers(int show) {
+            return distinct(random(DRESSERS, show), crew, Math.min(v.crewPerShow(), crew.length));
+        }
+
+        private Rows rows(String table, String... columns) throws SQLException {
+            Rows rows = postgres ? new CopyRows(connection, table, columns) : new BatchRows(connection, table, columns);
+            counts.put(table, 0L);
+            return rows;
+        }
+
+        /**
+         * Rows for one table; close() flushes and records the count
+         */
+        private abstract class Rows implements AutoCloseable {
+            private final String table;
+            long written;
+
+            Rows(String table) {
+                this.table = table;
+            }
+
+            final void add(Object... values) throws SQLException {
+                write(values);
+                written++;
+            }
+
+            abstract void write(Object[] values) throws SQLException;
+
+            abstract void flush() throws SQLException;
+
+            @Override
+            public void close() throws SQLException {
+                flush();
+                counts.put(table, written);
+            }
+        }
+
+        private final class BatchRows extends Rows {
+            private final PreparedStatement insert;
+            private int pending;
+
+            BatchRows(Connection connection, String table, String[] columns) throws SQLException {
+                super(table);
+                String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+                insert = connection.prepareStatement("INSERT INTO " + table + " (" + String.join(", ", columns)
+                        + ") VALUES (" + placeholders + ")");
+            }
+
+            @Override
+            void write(Object[] values) throws SQLException {
+                for (int i = 0; i < values.length; i++) {
+                    insert.setObject(i + 1, values[i]);
+                }
+                insert.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    flush();
+                }
+            }
+
+            @Override
+            void flush() throws SQLException {
+                if (pending > 0) {
+                    insert.executeBatch();
+                    pending = 0;
+                }
+            }
+
+            @Override
+            public void close() throws SQLException {
+                try {
+                    super.close();
+                } finally {
+                    insert.close();
+                }
+            }
+        }
+
+        private final class CopyRows extends Rows {
+            private final CopyIn copy;
+            private final StringBuilder buffer = new StringBuilder(COPY_BUFFER + 1024);
+
+            CopyRows(Connection connection, String table, String[] columns) throws SQLException {
+                super(table);
+                copy = new CopyManager(connection.unwrap(BaseConnection.class)).copyIn("COPY " + table + " ("
+                        + String.join(", ", columns) + ") FROM STDIN (FORMAT csv)");
+            }
+
+            @Override
+            void write(Object[] values) throws SQLException {
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        buffer.append(',');
+                    }
+                    Object value = values[i];
+                    if (value instanceof String text) {
+                        // Quoted, so "" stays an empty string; an unquoted empty field is NULL
+                        buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+                    } else if (value != null) {
+                        buffer.append(value);
+                    }
+                }
+                buffer.append('\n');
+                if (buffer.length() >= COPY_BUFFER) {
+                    send();
+                }
+            }
+
+            private void send() throws SQLException {
+                byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+                copy.writeToCopy(bytes, 0, bytes.length);
+                buffer.setLength(0);
+            }
+
+            @Override
+            void flush() throws SQLException {
+                send();
+            }
+
+            @Override
+            public void close() throws SQLException {
+                try {
+                    super.close();
+                    copy.endCopy();
+                } finally {
+                    if (copy.isActive()) {
+                        copy.cancelCopy();
+                    }
+                }
+            }
+        }
+    }
+
+    static String sceneName(int scene) {
+        return "Scene " + (scene + 1);
+    }
+
+    static String characterName(int character) {
+        return "Character " + (character + 1);
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static int pick(SplittableRandom random, int[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // Nearly every measurement is recorded; a few are left blank
+    private static Double measure(SplittableRandom random, double typical, double build) {
+        if (random.nextInt(12) == 0) {
+            return null;
+        }
+        return Math.round(typical * build * (1 + random.nextGaussian() * 0.03) * 4) / 4.0;
+    }
+
+    private static int[] distinct(SplittableRandom random, int[] values, int count) {
+        Set<Integer> chosen = new HashSet<>();
+        int[] result = new int[count];
+        int n = 0;
+        while (n < count) {
+            int value = pick(random, values);
+            if (chosen.add(value)) {
+                result[n++] = value;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Generates a dataset from the command line
+     * Arguments are --url, --user and --password, plus any of the Volumes
+     * settings (--students=100000 ...); unset volumes come from Volumes.SMALL
+     */
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> settings = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            settings.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        if (!settings.containsKey("url")) {
+            throw new IllegalArgumentException("--url is required");
+        }
+        Volumes volumes = Volumes.from(settings::get, Volumes.SMALL);
+
+        long start = System.nanoTime();
+        Map<String, Long> counts;
+        try (Connection connection = DriverManager.getConnection(settings.get("url"), settings.get("user"),
+                settings.get("password"))) {
+            counts = generate(connection, volumes);
+        }
+        System.out.println(volumes);
+        counts.forEach((table, rows) -> System.out.printf("%-20s %,12d%n", table, rows));
+        System.out.printf("Done in %.1fs%n", (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,102 @@
+package com.creighton_theater.theater_database;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The in-memory indexes and per-show caches, on the same seeded database
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IndexBenchmark {
+
+    private static final Map<String, Double> GARMENT = Map.of("chest", 31.0, "waist", 28.5, "highhip", 36.0,
+            "lowhip", 41.0);
+    private static final Map<String, Double> WEIGHTS = Map.of("chest", 2.0);
+
+    private ConfigurableApplicationContext context;
+    private AutocompleteIndex autocompleteIndex;
+    private MeasurementIndex measurementIndex;
+    private QuickChangeAnalyzer quickChangeAnalyzer;
+    private CastingConflictDetector castingConflicts;
+
+    // An actor cast in show 1, and one of their characters
+    private String netID;
+    private String characterName;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkDatabase.start();
+        autocompleteIndex = context.getBean(AutocompleteIndex.class);
+        measurementIndex = context.getBean(MeasurementIndex.class);
+        quickChangeAnalyzer = context.getBean(QuickChangeAnalyzer.class);
+        castingConflicts = context.getBean(CastingConflictDetector.class);
+
+        Map<String, Object> cast = context.getBean(JdbcTemplate.class).queryForMap(
+                "SELECT netid, charactername FROM characters WHERE showid = 1 ORDER BY charactername LIMIT 1");
+        netID = (String) cast.get("netid");
+        characterName = (String) cast.get("charactername");
+
+        quickChangeAnalyzer.report(1);
+        castingConflicts.conflicts(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<StudentSummary> autocompleteLastName() {
+        return autocompleteIndex.students("lastname", "Ko");
+    }
+
+    @Benchmark
+    public List<MeasurementMatch> nearestMeasurements() {
+        return measurementIndex.nearest(GARMENT, WEIGHTS, 10);
+    }
+
+    @Benchmark
+    public QuickChangeReport quickChangesCached() {
+        return quickChangeAnalyzer.report(1);
+    }
+
+    @Benchmark
+    public QuickChangeReport quickChangesOneActor() {
+        quickChangeAnalyzer.actorChanged(1, netID);
+        return quickChangeAnalyzer.report(1);
+    }
+
+    @Benchmark
+    public String castingConflictCheck() {
+        return castingConflicts.check(1, netID, characterName, "Scene C");
+    }
+
+    @Benchmark
+    public List<CastingConflict> castingConflictReport() {
+        return castingConflicts.conflicts(1);
+    }
+}
@@ -0,0 +1,511 @@
+package com.creighton_theater.theater_database;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Closed-loop load test: a number of simulated users browse the app at once
+ * and every request's latency is recorded per endpoint
+ * Each user repeatedly picks a scenario modelled on the pages' scripts:
+ * paging through a list, opening a show and its scenes, typing into a
+ * filter box (filterBy is sent after each pause of FILTER_DEBOUNCE_MS, as
+ * common.js does) or into an autocomplete box (one request per keystroke),
+ * then thinks for a random, exponentially distributed time. Like the
+ * browser, users send If-None-Match for URLs they have seen before
+ * By default the app is started on a free port against the same in-memory
+ * H2 database and DatasetGenerator data as the benchmarks; --base-url points
+ * it at a running server instead (assumed to be on PostgreSQL, so shows are
+ * opened through /shows/{showID}/breakdown)
+ *
+ *   ./mvnw -Pbenchmark compile exec:exec
+ *       -Dbenchmark.main=com.creighton_theater.theater_database.LoadTest
+ *       -Dbenchmark.args="--users=200 --duration=120s --baseline=target/load-test/previous.json"
+ *
+ * The report (target/load-test/report.json) lists each endpoint's request
+ * count, errors, 304s, throughput and p50/p95/p99/max latency, with keys in
+ * a fixed order so two runs can be diffed
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+public final class LoadTest {
+
+    // Matches FILTER_DEBOUNCE_MS in common.js
+    private static final long FILTER_DEBOUNCE_MS = 250;
+
+    private static final String[] STUDENT_FILTER_COLUMNS = { "firstname", "lastname", "netid" };
+    private static final String[] LIST_ENDPOINTS = { "/student/getAll", "/actors/getAll", "/crew/getAll",
+            "/characters/getAll" };
+
+    /**
+     * How the test is run
+     *
+     * @param users    Simulated users browsing at once
+     * @param duration How long to record for, after the warmup
+     * @param warmup   How long to run before recording
+     * @param think    Mean pause between a user's scenarios
+     * @param seed     Random seed for the users' choices
+     * @param baseUrl  Server to test, or null to start one
+     * @param report   Where to write the JSON report
+     * @param baseline An earlier report to compare against (optional)
+     */
+    record Settings(int users, Duration duration, Duration warmup, Duration think, long seed, String baseUrl,
+            Path report, Path baseline) {
+
+        static Settings from(Map<String, String> args) {
+            return new Settings(
+                    Integer.parseInt(args.getOrDefault("users", "200")),
+                    duration(args.getOrDefault("duration", "60s")),
+                    duration(args.getOrDefault("warmup", "15s")),
+                    duration(args.getOrDefault("think", "1s")),
+                    Long.parseLong(args.getOrDefault("seed", "42")),
+                    args.get("base-url"),
+                    Path.of(args.getOrDefault("report", "target/load-test/report.json")),
+                    args.containsKey("baseline") ? Path.of(args.get("baseline")) : null);
+        }
+
+        // Accepts 90s, 2m, 500ms or an ISO-8601 duration
+        private static Duration duration(String text) {
+            String value = text.trim().toLowerCase();
+            if (value.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+            }
+            if (value.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+            }
+            if (value.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+            }
+            return Duration.parse(text);
+        }
+    }
+
+    /**
+     * One endpoint's results
+     * Latencies are in milliseconds; throughput is requests per second
+     */
+    record EndpointStats(long requests, long errors, long notModified, double throughput, double p50, double p95,
+            double p99, double max) {
+    }
+
+    /**
+     * The whole report; endpoints are keyed "METHOD /path" and sorted
+     */
+    record Report(Map<String, Object> settings, EndpointStats total, Map<String, EndpointStats> endpoints) {
+    }
+
+    /**
+     * The latencies one user measured, per endpoint
+     * Each user has its own, so recording never contends
+     */
+    private static final class Recorder {
+        final Map<String, long[]> latencies = new HashMap<>();
+        final Map<String, Integer> counts = new HashMap<>();
+        final Map<String, long[]> outcomes = new HashMap<>();
+
+        void record(String endpoint, long nanos, boolean error, boolean notModified) {
+            int n = counts.merge(endpoint, 1, Integer::sum);
+            long[] values = latencies.computeIfAbsent(endpoint, k -> new long[256]);
+            if (n > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+                latencies.put(endpoint, values);
+            }
+            values[n - 1] = nanos;
+
+            long[] outcome = outcomes.computeIfAbsent(endpoint, k -> new long[2]);
+            outcome[0] += error ? 1 : 0;
+            outcome[1] += notModified ? 1 : 0;
+        }
+    }
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        Settings settings = Settings.from(options);
+        DatasetGenerator.Volumes volumes = BenchmarkDatabase.volumes();
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = settings.baseUrl();
+        if (baseUrl == null) {
+            System.out.println("Starting the app against H2 with " + volumes);
+            context = BenchmarkDatabase.startServer();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            Report report = run(settings, volumes, baseUrl);
+
+            ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            JsonNode baseline = settings.baseline() == null ? null : mapper.readTree(settings.baseline().toFile());
+            Files.createDirectories(settings.report().toAbsolutePath().getParent());
+            mapper.writeValue(settings.report().toFile(), report);
+
+            print(report, baseline);
+            System.out.println("Report written to " + settings.report());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static Report run(Settings settings, DatasetGenerator.Volumes volumes, String baseUrl)
+            throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        long start = System.nanoTime();
+        long recordFrom = start + settings.warmup().toNanos();
+        long stopAt = recordFrom + settings.duration().toNanos();
+
+        System.out.printf("%d users, %ss warmup, %ss recorded, against %s%n", settings.users(),
+                settings.warmup().toSeconds(), settings.duration().toSeconds(), baseUrl);
+
+        List<Recorder> recorders = new ArrayList<>();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < settings.users(); i++) {
+                VirtualUser user = new VirtualUser(client, baseUrl, volumes, settings,
+                        new SplittableRandom(settings.seed() * 1_000_003L + i), recordFrom, stopAt);
+                recorders.add(user.recorder);
+                running.add(users.submit(user));
+            }
+            for (Future<?> user : running) {
+                user.get();
+            }
+        }
+
+        double seconds = settings.duration().toNanos() / 1e9;
+        Map<String, EndpointStats> endpoints = new TreeMap<>();
+        List<long[]> all = new ArrayList<>();
+        long[] allOutcomes = new long[2];
+        for (String endpoint : recorders.stream().flatMap(r -> r.counts.keySet().stream()).distinct().toList()) {
+            List<long[]> samples = new ArrayList<>();
+            long[] outcomes = new long[2];
+            for (Recorder recorder : recorders) {
+                Integer n = recorder.counts.get(endpoint);
+                if (n != null) {
+                    samples.add(Arrays.copyOf(recorder.latencies.get(endpoint), n));
+                    outcomes[0] += recorder.outcomes.get(endpoint)[0];
+                    outcomes[1] += recorder.outcomes.get(endpoint)[1];
+                }
+            }
+            all.addAll(samples);
+            allOutcomes[0] += outcomes[0];
+            allOutcomes[1] += outcomes[1];
+            endpoints.put(endpoint, stats(samples, outcomes, seconds));
+        }
+
+        Map<String, Object> settingsReport = new LinkedHashMap<>();
+        settingsReport.put("users", settings.users());
+        settingsReport.put("durationSeconds", settings.duration().toSeconds());
+        settingsReport.put("warmupSeconds", settings.warmup().toSeconds());
+        settingsReport.put("thinkMillis", settings.think().toMillis());
+        settingsReport.put("seed", settings.seed());
+        settingsReport.put("target", settings.baseUrl() == null ? "h2" : settings.baseUrl());
+        settingsReport.put("dataset", volumes);
+        return new Report(settingsReport, stats(all, allOutcomes, seconds), endpoints);
+    }
+
+    private static EndpointStats stats(List<long[]> samples, long[] outcomes, double seconds) {
+        long[] sorted = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new EndpointStats(sorted.length, outcomes[0], outcomes[1], round(sorted.length / seconds),
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : millis(sorted[sorted.length - 1]));
+    }
+
+    // Nearest-rank percentile, in milliseconds
+    private static double percentile(long[] sorted, double q) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(q * sorted.length);
+        return millis(sorted[Math.max(0, rank - 1)]);
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static void print(Report report, JsonNode baseline) {
+        System.out.printf("%n%-42s %8s %6s %6s %8s %9s %9s %9s %9s%n", "Endpoint", "Requests", "Errors", "304s",
+                "Req/s", "p50 ms", "p95 ms", "p99 ms", "Max ms");
+        Map<String, EndpointStats> rows = new LinkedHashMap<>(report.endpoints());
+        rows.put("TOTAL", report.total());
+        rows.forEach((endpoint, s) -> {
+            System.out.printf("%-42s %8d %6d %6d %8.1f %9.2f %9.2f %9.2f %9.2f", endpoint, s.requests(), s.errors(),
+                    s.notModified(), s.throughput(), s.p50(), s.p95(), s.p99(), s.max());
+            JsonNode before = baseline == null ? null
+                    : "TOTAL".equals(endpoint) ? baseline.get("total") : baseline.path("endpoints").get(endpoint);
+            if (before != null && before.get("p95").asDouble() > 0) {
+                double change = (s.p95() / before.get("p95").asDouble() - 1) * 100;
+                System.out.printf("   p95 %+.0f%% vs baseline", change);
+            }
+            System.out.println();
+        });
+    }
+
+    /**
+     * One simulated user
+     */
+    private static final class VirtualUser implements Runnable {
+        private final HttpClient client;
+        private final String baseUrl;
+        private final DatasetGenerator.Volumes volumes;
+        private final Settings settings;
+        private final SplittableRandom random;
+        private final long recordFrom;
+        private final long stopAt;
+        private final Recorder recorder = new Recorder();
+
+        // Like the browser cache: the last ETag seen for each URL
+        private final Map<String, String> etags = new HashMap<>();
+
+        VirtualUser(HttpClient client, String baseUrl, DatasetGenerator.Volumes volumes, Settings settings,
+                SplittableRandom random, long recordFrom, long stopAt) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.volumes = volumes;
+            this.settings = settings;
+            this.random = random;
+            this.recordFrom = recordFrom;
+            this.stopAt = stopAt;
+        }
+
+        @Override
+        public void run() {
+            try {
+                // Spread the users' first requests over one think time
+                pause((long) (random.nextDouble() * settings.think().toMillis()));
+                while (System.nanoTime() < stopAt) {
+                    int scenario = random.nextInt(100);
+                    if (scenario < 20) {
+                        browseList();
+                    } else if (scenario < 40) {
+                        openShow();
+                    } else if (scenario < 70) {
+                        filterList();
+                    } else if (scenario < 85) {
+                        autocomplete();
+                    } else {
+                        openStudent();
+                    }
+                    pause((long) (-Math.log(1 - random.nextDouble()) * settings.think().toMillis()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /** A list page, then a page or two further */
+        private void browseList() throws InterruptedException {
+            String endpoint = LIST_ENDPOINTS[random.nextInt(LIST_ENDPOINTS.length)];
+            HttpResponse<Void> page = get(endpoint, endpoint + "?limit=50");
+            int more = random.nextInt(3);
+            for (int i = 0; i < more && page != null; i++) {
+                String cursor = page.headers().firstValue("X-Next-Cursor").orElse(null);
+                if (cursor == null) {
+                    return;
+                }
+                pause(500 + random.nextInt(1500));
+                page = get(endpoint, endpoint + "?limit=50&cursor=" + encode(cursor));
+            }
+        }
+
+        /** The shows page, one show's breakdown and its scene pages */
+        private void openShow() throws InterruptedException {
+            get("/shows/getAll", "/shows/getAll");
+            int showID = 1 + random.nextInt(volumes.shows());
+            pause(300 + random.nextInt(700));
+            if (settings.baseUrl() != null) {
+                get("/shows/{showID}/breakdown", "/shows/" + showID + "/breakdown");
+            } else {
+                // The breakdown is built with PostgreSQL's json_agg, which H2
+                // lacks; load the lists it combines instead
+                get("/shows/getScenesInShow", "/shows/getScenesInShow?showID=" + showID);
+                get("/shows/getCharactersInShow", "/shows/getCharactersInShow?showID=" + showID);
+                get("/shows/getCrew", "/shows/getCrew?showID=" + showID);
+            }
+
+            pause(500 + random.nextInt(1500));
+            switch (random.nextInt(4)) {
+                case 0 -> get("/shows/getCharactersInShow", "/shows/getCharactersInShow?showID=" + showID);
+                case 1 -> get("/shows/getCrew", "/shows/getCrew?showID=" + showID);
+                case 2 -> get("/shows/{showID}/quickChanges", "/shows/" + showID + "/quickChanges");
+                default -> {
+                    get("/shows/getScenesInShow", "/shows/getScenesInShow?showID=" + showID);
+                    String scene = DatasetGenerator.sceneName(random.nextInt(volumes.scenesPerShow()));
+                    pause(300 + random.nextInt(700));
+                    get("/shows/getSceneDetails",
+                            "/shows/getSceneDetails?showID=" + showID + "&sceneName=" + encode(scene));
+                }
+            }
+        }
+
+        /** Typing into a list page's filter box */
+        private void filterList() throws InterruptedException {
+            switch (random.nextInt(5)) {
+                case 0, 1 -> {
+                    String column = STUDENT_FILTER_COLUMNS[random.nextInt(STUDENT_FILTER_COLUMNS.length)];
+                    type(word(column), "/student/filterBy", "/student/filterBy?column=" + column + "&value=");
+                }
+                case 2 -> {
+                    String column = random.nextBoolean() ? "firstname" : "lastname";
+                    type(word(column), "/actors/filterBy", "/actors/filterBy?column=" + column + "&value=");
+                }
+                case 3 -> type(word("netid"), "/crew/filterBy", "/crew/filterBy?value=");
+                default -> {
+                    boolean byShow = random.nextBoolean();
+                    String text = byShow ? DatasetGenerator.TITLE_WORDS[random.nextInt(
+                            DatasetGenerator.TITLE_WORDS.length)] : word("lastname");
+                    type(text, "/characters/filterBy", byShow
+                            ? "/characters/filterBy?page=sh&column=showname&value="
+                            : "/characters/filterBy?page=s&column=lastname&value=");
+                }
+            }
+        }
+
+        /**
+         * Types text a key at a time; a request goes out once typing pauses
+         * for FILTER_DEBOUNCE_MS, and after the last key
+         */
+        private void type(String text, String endpoint, String prefix) throws InterruptedException {
+            for (int i = 1; i <= text.length(); i++) {
+                long gap = i == text.length() ? Long.MAX_VALUE : keystrokeGap();
+                pause(Math.min(gap, FILTER_DEBOUNCE_MS));
+                if (gap >= FILTER_DEBOUNCE_MS) {
+                    get(endpoint, prefix + encode(text.substring(0, i)));
+                    if (gap != Long.MAX_VALUE) {
+                        pause(gap - FILTER_DEBOUNCE_MS);
+                    }
+                }
+            }
+        }
+
+        /** Student and show pickers, which search on every keystroke */
+        private void autocomplete() throws InterruptedException {
+            boolean students = random.nextInt(3) > 0;
+            String text = students ? word("lastname")
+                    : DatasetGenerator.TITLE_WORDS[random.nextInt(DatasetGenerator.TITLE_WORDS.length)];
+            int typed = Math.min(text.length(), 2 + random.nextInt(5));
+            for (int i = 1; i <= typed; i++) {
+                String value = encode(text.substring(0, i));
+                if (students) {
+                    get("/student/search", "/student/search?searchBy=lastname&value=" + value);
+                } else {
+                    get("/shows/getShowIDName", "/shows/getShowIDName?searchBy=showname&searchValue=" + value);
+                }
+                pause(keystrokeGap());
+            }
+        }
+
+        /** A student's shows and profile */
+        private void openStudent() throws InterruptedException {
+            String netID = DatasetGenerator.netID(random.nextInt(volumes.students()));
+            get("/student/getShows", "/student/getShows?netID=" + netID);
+            pause(300 + random.nextInt(700));
+            get("/student/{netID}/profile", "/student/" + netID + "/profile");
+        }
+
+        /** A name (or netID prefix) to type, cut to a plausible length */
+        private String word(String column) {
+            String word = switch (column) {
+                case "firstname" -> DatasetGenerator.FIRST_NAMES[random.nextInt(DatasetGenerator.FIRST_NAMES.length)];
+                case "netid" -> DatasetGenerator.netID(random.nextInt(volumes.students()));
+                default -> DatasetGenerator.LAST_NAMES[random.nextInt(DatasetGenerator.LAST_NAMES.length)];
+            };
+            return word.substring(0, Math.min(word.length(), 3 + random.nextInt(5)));
+        }
+
+        // Mostly quick typing, with the occasional pause to look at results
+        private long keystrokeGap() {
+            return random.nextInt(6) == 0 ? 300 + random.nextInt(700) : 60 + random.nextInt(140);
+        }
+
+        /**
+         * Sends one GET and records it under endpoint
+         *
+         * @return The response, or null if the request failed
+         */
+        private HttpResponse<Void> get(String endpoint, String pathAndQuery) throws InterruptedException {
+            if (System.nanoTime() >= stopAt) {
+                return null;
+            }
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET();
+            String etag = etags.get(pathAndQuery);
+            if (etag != null) {
+                request.header("If-None-Match", etag);
+            }
+
+            long start = System.nanoTime();
+            HttpResponse<Void> response = null;
+            try {
+                response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            } catch (IOException e) {
+                // Counted as an error below
+            }
+            long elapsed = System.nanoTime() - start;
+
+            if (response != null) {
+                response.headers().firstValue("ETag").ifPresent(value -> etags.put(pathAndQuery, value));
+            }
+            if (start >= recordFrom) {
+                int status = response == null ? 0 : response.statusCode();
+                recorder.record("GET " + endpoint, elapsed, status == 0 || status >= 400, status == 304);
+            }
+            return response;
+        }
+
+        private void pause(long millis) throws InterruptedException {
+            long remaining = (stopAt - System.nanoTime()) / 1_000_000;
+            Thread.sleep(Math.max(0, Math.min(millis, remaining)));
+        }
+
+        private static String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.creighton_theater.theater_database;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * An actor's profile and measurements, joined to the student's name
+ * Measurements stay nullable (Double) because most actors only have some of
+ * them filled in; the photo BYTEA column is deliberately not part of this row
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record Actor(
+        String firstName,
+        String lastName,
+        String netID,
+        Integer yearsActingExperience,
+        String skinTone,
+        String piercings,
+        String hairColor,
+        String previousInjuries,
+        String specialNotes,
+        String height,
+        String ringSize,
+        String shoeSize,
+        Double headCirc,
+        Double neckBase,
+        Double chest,
+        Double waist,
+        Double highHip,
+        Double lowHip,
+        Double armseyeToArmseyeFront,
+        Double neckToWaistFront,
+        Double armseyeToArmseyeBack,
+        Double neckToWaistBack,
+        Double centerBackToWrist,
+        Double outsleeveToWrist,
+        Double outseamBelowKnee,
+        Double outseamToAnkle,
+        Double outseamToFloor,
+        String otherNotes) {
+
+    /** Select list read by MAPPER, in component order (a = actor, s = student) */
+    public static final String COLUMNS = """
+            s.firstname, s.lastname, a.netid, a.yearsactingexperience,
+            a.skintone, a.piercings, a.haircolor, a.previousinjuries, a.specialnotes,
+            a.height, a.ringsize, a.shoesize, a.headcirc, a.neckbase, a.chest, a.waist,
+            a.highhip, a.lowhip, a.armseyetoarmseyefront, a.necktowaistfront,
+            a.armseyetoarmseyeback, a.necktowaistback, a.centerbacktowrist,
+            a.outsleevetowrist, a.outseambelowknee, a.outseamtoankle, a.outseamtofloor,
+            a.othernotes""";
+
+    /** Maps a row selected with COLUMNS by column position */
+    public static final RowMapper<Actor> MAPPER = (rs, rowNum) -> new Actor(
+            rs.getString(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getObject(4, Integer.class),
+            rs.getString(5),
+            rs.getString(6),
+            rs.getString(7),
+            rs.getString(8),
+            rs.getString(9),
+            rs.getString(10),
+            rs.getString(11),
+            rs.getString(12),
+            rs.getObject(13, Double.class),
+            rs.getObject(14, Double.class),
+            rs.getObject(15, Double.class),
+            rs.getObject(16, Double.class),
+            rs.getObject(17, Double.class),
+            rs.getObject(18, Double.class),
+            rs.getObject(19, Double.class),
+            rs.getObject(20, Double.class),
+            rs.getObject(21, Double.class),
+            rs.getObject(22, Double.class),
+            rs.getObject(23, Double.class),
+            rs.getObject(24, Double.class),
+            rs.getObject(25, Double.class),
+            rs.getObject(26, Double.class),
+            rs.getObject(27, Double.class),
+            rs.getString(28));
+}
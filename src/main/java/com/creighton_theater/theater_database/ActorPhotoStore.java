@@ -0,0 +1,344 @@
+package com.creighton_theater.theater_database;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Stores and serves actor photos (actor.photo BYTEA)
+ * Photos never pass through a row mapper: uploads are streamed into the
+ * UPDATE from the multipart file, and downloads are read back in
+ * CHUNK_SIZE slices with substring(), so only one slice is on the heap at a
+ * time and byte ranges cost no more than the bytes asked for
+ * Each photo is identified by the SHA-256 of its bytes. The hash is the
+ * ETag, and a URL that names the current hash (?v=) can be cached forever
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class ActorPhotoStore {
+
+    /** Bytes read from the database per query when serving a photo */
+    public static final int CHUNK_SIZE = 256 * 1024;
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    /**
+     * What is known about a stored photo without reading it
+     *
+     * @param hash        Hex SHA-256 of the photo's bytes
+     * @param length      Size in bytes
+     * @param contentType Image type, from the file's leading bytes
+     */
+    public record Info(String hash, long length, MediaType contentType) {
+
+        /** Photo URL that can be cached until the photo changes */
+        public String url(String netID) {
+            return "/actors/" + netID + "/photo?v=" + hash;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    // Hashing a photo means reading all of it, so the result is remembered;
+    // uploads replace their entry and the TTL covers edits made elsewhere
+    private final Cache<String, Info> infos = Caffeine.newBuilder()
+            .maximumSize(5_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    @PostConstruct
+    public void subscribe() {
+        tableVersions.subscribe(tables -> forgetAll(), "student");
+    }
+
+    /**
+     * Replaces an actor's photo with an uploaded image
+     *
+     * @param netID The actor's netID
+     * @param file  A JPEG, PNG, GIF or WebP image
+     * @return The stored photo, or null if there is no such actor
+     * @throws IllegalArgumentException If the file is empty or not a supported image
+     * @throws IOException              If the upload cannot be read
+     */
+    public Info save(String netID, MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Photo file is empty");
+        }
+
+        try (InputStream in = new BufferedInputStream(file.getInputStream())) {
+            in.mark(16);
+            MediaType type = sniff(in.readNBytes(12));
+            in.reset();
+            if (type == null) {
+                throw new IllegalArgumentException("Photo must be a JPEG, PNG, GIF or WebP image");
+            }
+
+            // Hash the bytes on their way to the database rather than reading them twice
+            MessageDigest sha256 = sha256();
+            DigestInputStream hashing = new DigestInputStream(in, sha256);
+            int rowsAffected = jdbcTemplate.update("UPDATE actor SET photo = ? WHERE netid = ?", ps -> {
+                ps.setBinaryStream(1, hashing, file.getSize());
+                ps.setString(2, netID);
+            });
+
+            if (rowsAffected == 0) {
+                return null;
+            }
+            Info info = new Info(HexFormat.of().formatHex(sha256.digest()), file.getSize(), type);
+            infos.put(netID, info);
+            return info;
+        }
+    }
+
+    /**
+     * Removes an actor's photo
+     *
+     * @param netID The actor's netID
+     * @return True if the actor had a photo
+     */
+    public boolean delete(String netID) {
+        infos.invalidate(netID);
+        return jdbcTemplate.update("UPDATE actor SET photo = NULL WHERE netid = ? AND photo IS NOT NULL", netID) > 0;
+    }
+
+    /**
+     * Looks up an actor's photo without transferring it
+     *
+     * @param netID The actor's netID
+     * @return The photo's hash, size and type, or null if there is none
+     */
+    public Info info(String netID) {
+        return infos.get(netID, key -> {
+            List<Info> rows = ReplicaRoutingDataSource.onPrimary(() -> jdbcTemplate.query("""
+                    SELECT encode(sha256(photo), 'hex'), octet_length(photo), substring(photo from 1 for 12)
+                    FROM actor
+                    WHERE netid = ? AND photo IS NOT NULL
+                    """, (rs, rowNum) -> new Info(rs.getString(1), rs.getLong(2), sniff(rs.getBytes(3))), key));
+            return rows.isEmpty() ? null : rows.get(0);
+        });
+    }
+
+    /**
+     * Drops every remembered hash, for changes that can reach any actor (a
+     * student's netID changing or a student being deleted); called from the
+     * write hook
+     */
+    public void forgetAll() {
+        infos.invalidateAll();
+    }
+
+    /**
+     * Builds the response for a photo download
+     * Honours If-None-Match (304), a single-range Range header (206, or 416 if
+     * it starts past the end) and If-Range. Multiple or unparseable ranges get
+     * the whole photo, as RFC 9110 allows
+     *
+     * @param netID   The actor's netID
+     * @param version The ?v= hash the client asked for (optional)
+     * @param request The request headers
+     * @return The photo, or 404 if there is none
+     */
+    public ResponseEntity<StreamingResponseBody> serve(String netID, String version, HttpHeaders request) {
+        Info info = info(netID);
+        if (info == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        String etag = "\"" + info.hash() + "\"";
+        CacheControl cacheControl = info.hash().equals(version) ? IMMUTABLE : REVALIDATE;
+
+        List<String> ifNoneMatch = request.getIfNoneMatch();
+        if (ifNoneMatch.contains(etag) || ifNoneMatch.contains("W/" + etag) || ifNoneMatch.contains("*")) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        long length = info.length();
+        long start = 0;
+        long end = length - 1;
+        boolean partial = false;
+
+        String ifRange = request.getFirst(HttpHeaders.IF_RANGE);
+        if (request.containsKey(HttpHeaders.RANGE) && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = request.getRange();
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                try {
+                    start = range.getRangeStart(length);
+                    end = range.getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    start = length;
+                }
+                if (start >= length || start > end) {
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                            .build();
+                }
+                partial = true;
+            }
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(info.contentType())
+                .contentLength(end - start + 1)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (partial) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        return response.body(stream(netID, start, end - start + 1));
+    }
+
+    /**
+     * Writes bytes [offset, offset + count) of a photo, one chunk per query
+     * The chunks are read in one repeatable-read transaction so a photo
+     * replaced mid-download cannot be spliced with the old one
+     */
+    private StreamingResponseBody stream(String netID, long offset, long count) {
+        return outputStream -> {
+            try {
+                copy(netID, offset, count, outputStream);
+            } catch (IOException e) {
+                // Client went away mid-download; nothing left to send it
+                System.err.println("Error streaming photo: " + e.getMessage());
+            }
+        };
+    }
+
+    /**
+     * Copies a whole photo to a stream without holding it in memory
+     *
+     * @param netID The actor's netID
+     * @param out   Where to write the photo
+     * @throws IOException If writing fails
+     */
+    public void copy(String netID, OutputStream out) throws IOException {
+        copy(netID, 0, Long.MAX_VALUE, out);
+    }
+
+    private void copy(String netID, long offset, long count, OutputStream out) throws IOException {
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setReadOnly(true);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        // Read where info() read the hash, so the bytes always match their ETag
+        try {
+            ReplicaRoutingDataSource.onPrimary(() -> {
+                snapshot.executeWithoutResult(status -> {
+                    long position = offset;
+                    long remaining = count;
+                    while (remaining > 0) {
+                        int size = (int) Math.min(CHUNK_SIZE, remaining);
+                        // substring() positions are 1-based
+                        List<byte[]> chunk = jdbcTemplate.queryForList(
+                                "SELECT substring(photo from ? for ?) FROM actor WHERE netid = ?",
+                                byte[].class, position + 1, size, netID);
+                        if (chunk.isEmpty() || chunk.get(0) == null || chunk.get(0).length == 0) {
+                            break;
+                        }
+                        try {
+                            out.write(chunk.get(0));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        position += chunk.get(0).length;
+                        remaining -= chunk.get(0).length;
+                    }
+                });
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Identifies an image from its first bytes
+     *
+     * @return The image type, or null if it is not a supported image
+     */
+    static MediaType sniff(byte[] head) {
+        if (head == null) {
+            return null;
+        }
+        if (startsWith(head, 0xFF, 0xD8, 0xFF)) {
+            return MediaType.IMAGE_JPEG;
+        }
+        if (startsWith(head, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return MediaType.IMAGE_PNG;
+        }
+        if (startsWith(head, 'G', 'I', 'F', '8')) {
+            return MediaType.IMAGE_GIF;
+        }
+        if (startsWith(head, 'R', 'I', 'F', 'F') && head.length >= 12
+                && Arrays.equals(head, 8, 12, new byte[] { 'W', 'E', 'B', 'P' }, 0, 4)) {
+            return new MediaType("image", "webp");
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] bytes, int... prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((bytes[i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
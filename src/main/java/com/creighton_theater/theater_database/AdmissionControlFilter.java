@@ -0,0 +1,269 @@
+package com.creighton_theater.theater_database;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limits how many connections each kind of request can hold at once, so a
+ * burst of cheap reads cannot take the pool away from saves and edits
+ * Requests are sorted into three classes, each with its own budget of
+ * connections: autocomplete (filterBy and the show search box, one request
+ * per pause in typing), list (every other read) and mutation (anything but
+ * GET). A request takes one permit per connection it may hold at the same
+ * time: one for most, theater.profile.max-parallel-queries for the student
+ * profile, whose loader never runs more queries at once than that. The
+ * mutation budget defaults to what autocomplete and list leave of the pool,
+ * so the three budgets add up to its size and mutations always find a
+ * connection
+ * A request that cannot get its permits within its class's max-wait is
+ * turned away with 503 and Retry-After instead of queuing for a connection
+ * until connection-timeout. Autocomplete is also turned away as soon as any
+ * thread is waiting for a connection: the next keystroke replaces it anyway
+ * Connections taken outside a request (thumbnail generation, index
+ * refreshes) are not counted
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    enum EndpointClass {
+        AUTOCOMPLETE, LIST, MUTATION
+    }
+
+    private record Budget(int connections, Semaphore permits, Duration maxWait, Counter rejected) {
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @Value("${theater.profile.max-parallel-queries:3}")
+    private int profileConnections;
+
+    @Value("${theater.admission.autocomplete.max-connections:2}")
+    private int autocompleteConnections;
+
+    @Value("${theater.admission.autocomplete.max-wait:0ms}")
+    private Duration autocompleteWait;
+
+    @Value("${theater.admission.list.max-connections:5}")
+    private int listConnections;
+
+    @Value("${theater.admission.list.max-wait:2s}")
+    private Duration listWait;
+
+    // 0 for whatever autocomplete and list leave of the pool
+    @Value("${theater.admission.mutation.max-connections:0}")
+    private int mutationConnections;
+
+    @Value("${theater.admission.mutation.max-wait:30s}")
+    private Duration mutationWait;
+
+    private final Map<EndpointClass, Budget> budgets = new EnumMap<>(EndpointClass.class);
+
+    // The pool is started by its first connection, so this is looked up on use
+    private volatile HikariPoolMXBean pool;
+
+    @PostConstruct
+    public void createBudgets() {
+        int remaining = poolSize - autocompleteConnections - listConnections;
+        if (remaining < 1) {
+            System.err.println("Error in admission control settings: autocomplete and list budgets ("
+                    + (autocompleteConnections + listConnections) + ") leave no connections of "
+                    + poolSize + " for mutations");
+        }
+        int mutations = mutationConnections > 0 ? mutationConnections : Math.max(1, remaining);
+
+        budgets.put(EndpointClass.AUTOCOMPLETE, budget(EndpointClass.AUTOCOMPLETE,
+                autocompleteConnections, autocompleteWait));
+        budgets.put(EndpointClass.LIST, budget(EndpointClass.LIST, listConnections, listWait));
+        budgets.put(EndpointClass.MUTATION, budget(EndpointClass.MUTATION, mutations, mutationWait));
+    }
+
+    private Budget budget(EndpointClass type, int connections, Duration maxWait) {
+        String tag = type.name().toLowerCase(Locale.ROOT);
+        Semaphore permits = new Semaphore(connections, true);
+        Gauge.builder("theater.admission.active", permits, p -> connections - p.availablePermits())
+                .description("Connections held by admitted requests")
+                .tag("class", tag)
+                .register(registry);
+        Counter rejected = Counter.builder("theater.admission.rejected")
+                .description("Requests turned away with 503")
+                .tag("class", tag)
+                .register(registry);
+        return new Budget(connections, permits, maxWait, rejected);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        // Metrics must stay reachable under load; static files and the
+        // in-memory student search never touch the database
+        return path.startsWith("/actuator/") || path.equals("/student/search")
+                || path.lastIndexOf('.') > path.lastIndexOf('/');
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass type = classify(request);
+        Budget budget = budgets.get(type);
+        // Never more than the whole budget, or the request could never start
+        int weight = Math.min(weight(request), budget.connections());
+
+        if (type == EndpointClass.AUTOCOMPLETE && poolSaturated()) {
+            reject(response, budget);
+            return;
+        }
+        try {
+            if (!budget.permits().tryAcquire(weight, budget.maxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                reject(response, budget);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, budget);
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                budget.permits().release(weight);
+            }
+        };
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streamed responses keep their slot until the last row is written
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(release));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * Sorts a request into its endpoint class by method and path
+     *
+     * @param request The request
+     * @return Its class
+     */
+    static EndpointClass classify(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return EndpointClass.MUTATION;
+        }
+        String path = request.getServletPath();
+        if (path.endsWith("/filterBy") || path.equals("/shows/getShowIDName")) {
+            return EndpointClass.AUTOCOMPLETE;
+        }
+        return EndpointClass.LIST;
+    }
+
+    /**
+     * @param request The request
+     * @return How many connections it may hold at the same time
+     */
+    private int weight(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (path.startsWith("/student/") && path.endsWith("/profile")) {
+            return Math.max(1, profileConnections);
+        }
+        return 1;
+    }
+
+    private void reject(HttpServletResponse response, Budget budget) {
+        budget.rejected().increment();
+        // Long enough for the requests ahead to finish, never less than a second
+        long retryAfter = Math.max(1, (budget.maxWait().toMillis() + 999) / 1000);
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+    }
+
+    /**
+     * @return Whether any thread is waiting for a connection from the
+     *         primary pool
+     */
+    private boolean poolSaturated() {
+        HikariPoolMXBean current = pool;
+        if (current == null) {
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class,
+                    HikariDataSource.class);
+            current = hikari == null ? null : hikari.getHikariPoolMXBean();
+            if (current == null) {
+                return false;
+            }
+            pool = current;
+        }
+        return current.getThreadsAwaitingConnection() > 0;
+    }
+
+    /**
+     * Gives back a streamed request's slot however the stream ends
+     */
+    private record ReleaseOnCompletion(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the new cycle
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.creighton_theater.theater_database;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-process autocomplete over student netID/first name/last name and show
+ * name, so the search-as-you-type endpoints never touch the database
+ * Loaded when the application starts. A write to student or shows drops
+ * that index and the next lookup reloads it
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class AutocompleteIndex {
+
+    /** Most students returned for one keystroke, as the old LIMIT 10 query did */
+    public static final int STUDENT_LIMIT = 10;
+
+    // Same orderings the SQL versions of these endpoints used
+    private static final Comparator<StudentSummary> STUDENT_ORDER = Comparator
+            .comparing(StudentSummary::lastName)
+            .thenComparing(StudentSummary::firstName)
+            .thenComparing(StudentSummary::netID);
+    private static final Comparator<Show> SHOW_ORDER = Comparator
+            .comparing(Show::yearSemester, Comparator.nullsFirst(Comparator.<String>reverseOrder()))
+            .thenComparing(Show::showName, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    // Replaced wholesale on reload; readers never see a half-built index
+    private volatile Map<String, PrefixIndex<StudentSummary>> students;
+    private volatile PrefixIndex<Show> showNames;
+
+    @PostConstruct
+    public void subscribe() {
+        tableVersions.subscribe(this::drop, "student", "shows");
+    }
+
+    /**
+     * Loads both indexes once the application is up
+     * A failure leaves them to be loaded on the first lookup instead
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            reloadStudents();
+            reloadShows();
+        } catch (DataAccessException e) {
+            System.err.println("Error loading autocomplete: " + e.getMessage());
+        }
+    }
+
+    private void drop(Set<String> tables) {
+        if (tables.contains("student")) {
+            students = null;
+        }
+        if (tables.contains("shows")) {
+            showNames = null;
+        }
+    }
+
+    /**
+     * Finds students whose field starts with the typed text
+     *
+     * @param field  netid, firstname or lastname
+     * @param prefix The typed text
+     * @return Up to STUDENT_LIMIT students ordered by name
+     */
+    public List<StudentSummary> students(String field, String prefix) {
+        Map<String, PrefixIndex<StudentSummary>> indexes = students;
+        if (indexes == null) {
+            indexes = reloadStudents();
+        }
+        return indexes.get(field).startingWith(prefix, STUDENT_LIMIT);
+    }
+
+    /**
+     * Finds shows whose name starts with the typed text
+     *
+     * @param prefix The typed text
+     * @return Matching shows, newest semester first
+     */
+    public List<Show> showsByName(String prefix) {
+        PrefixIndex<Show> index = showNames;
+        if (index == null) {
+            index = reloadShows();
+        }
+        return index.startingWith(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Re-reads the student table
+     * The index is published and then dropped again if the table changed
+     * while it was being read, so a write is never lost to a slow reload
+     *
+     * @return The new index, for the caller to use either way
+     */
+    private synchronized Map<String, PrefixIndex<StudentSummary>> reloadStudents() {
+        long before = tableVersions.sum("student");
+        List<StudentSummary> rows = ReplicaRoutingDataSource.onPrimary(() -> jdbcTemplate.query(
+                "SELECT " + StudentSummary.COLUMNS + " FROM student", StudentSummary.MAPPER));
+
+        Map<String, PrefixIndex<StudentSummary>> indexes = Map.of(
+                "netid", new PrefixIndex<>(rows, StudentSummary::netID, STUDENT_ORDER),
+                "firstname", new PrefixIndex<>(rows, StudentSummary::firstName, STUDENT_ORDER),
+                "lastname", new PrefixIndex<>(rows, StudentSummary::lastName, STUDENT_ORDER));
+        students = indexes;
+        if (tableVersions.sum("student") != before) {
+            students = null;
+        }
+        return indexes;
+    }
+
+    /**
+     * Re-reads the shows table, as reloadStudents() does
+     */
+    private synchronized PrefixIndex<Show> reloadShows() {
+        long before = tableVersions.sum("shows");
+        List<Show> rows = ReplicaRoutingDataSource.onPrimary(
+                () -> jdbcTemplate.query("SELECT " + Show.COLUMNS + " FROM shows", Show.MAPPER));
+
+        PrefixIndex<Show> index = new PrefixIndex<>(rows, Show::showName, SHOW_ORDER);
+        showNames = index;
+        if (tableVersions.sum("shows") != before) {
+            showNames = null;
+        }
+        return index;
+    }
+}
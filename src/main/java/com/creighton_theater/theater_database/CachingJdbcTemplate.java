@@ -0,0 +1,336 @@
+package com.creighton_theater.theater_database;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * JdbcTemplate with a read-through result cache for hot, rarely-changing
+ * queries
+ * queryCached() keys results on the SQL and its parameters and tags them
+ * with the tables named in the query's FROM/JOIN clauses. Every update and
+ * batchUpdate run through this template drops the entries tagged with the
+ * table it writes, plus the tables that table cascades into, and then tells
+ * the in-memory indexes subscribed in TableVersions
+ * The cache is a bounded Caffeine cache (W-TinyLFU eviction) that records
+ * hit/miss statistics
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+public class CachingJdbcTemplate extends JdbcTemplate {
+
+    private static final Pattern READ_TABLE = Pattern.compile(
+            "\\b(?:FROM|JOIN)\\s+\"?([A-Za-z_][A-Za-z0-9_]*)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WRITE_TABLE = Pattern.compile(
+            "^\\s*(?:INSERT\\s+INTO|UPDATE|DELETE\\s+FROM|MERGE\\s+INTO|TRUNCATE(?:\\s+TABLE)?)\\s+\"?([A-Za-z_][A-Za-z0-9_]*)",
+            Pattern.CASE_INSENSITIVE);
+
+    private record Key(String sql, List<Object> args) {
+    }
+
+    private record Entry(List<?> rows, Set<String> tables) {
+    }
+
+    private final Cache<Key, Entry> cache;
+
+    // Bumped before a table's entries are dropped, so a query that was already
+    // running when the table changed does not cache its stale result, and
+    // again after, so a version read later never comes with a stale entry
+    private final TableVersions versions;
+
+    /**
+     * Creates the template
+     *
+     * @param dataSource  The connection pool
+     * @param versions    Per-table version counters to bump on writes
+     * @param maximumSize Most result sets kept at once
+     * @param ttl         How long a result may be served before re-querying,
+     *                    for writes made outside this application
+     */
+    public CachingJdbcTemplate(DataSource dataSource, TableVersions versions, long maximumSize, Duration ttl) {
+        super(dataSource);
+        this.versions = versions;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Runs a query through the result cache
+     * Inside a read-write transaction the cache is bypassed, so uncommitted
+     * rows are never shared with other requests. Misses are read from the
+     * primary, so a lagging replica never fills the cache
+     *
+     * @param sql    The SELECT to run
+     * @param mapper Maps each row
+     * @param args   Bind parameters for the query
+     * @return The rows, as an unmodifiable list shared with other callers
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> queryCached(String sql, RowMapper<T> mapper, Object... args) {
+        Set<String> tables = readTables(sql);
+        if (tables.isEmpty() || (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return query(sql, mapper, args);
+        }
+
+        Key key = new Key(sql, Arrays.asList(args));
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (List<T>) cached.rows();
+        }
+
+        long[] before = versions.of(tables);
+        Entry loaded = new Entry(List.copyOf(
+                ReplicaRoutingDataSource.onPrimary(() -> query(sql, mapper, args))), tables);
+        cache.put(key, loaded);
+
+        // A write landed while we were querying; our rows may predate it
+        if (!Arrays.equals(before, versions.of(tables))) {
+            cache.asMap().remove(key, loaded);
+        }
+        return (List<T>) loaded.rows();
+    }
+
+    /**
+     * Drops cached results that read any of the given tables (or tables
+     * they cascade into) and tells the indexes subscribed to them
+     * Writes through this template call this automatically; code that writes
+     * another way (e.g. COPY) must call it itself
+     *
+     * @param tables The tables that changed
+     */
+    public void invalidate(String... tables) {
+        versions.changed(drop(tables));
+        versions.bump(tables);
+    }
+
+    /**
+     * Drops every cached result and every subscribed index
+     */
+    public void invalidateAll() {
+        dropAll();
+        versions.changedAll();
+        versions.bumpAll();
+    }
+
+    /**
+     * Hit/miss/eviction counts since startup
+     *
+     * @return Caffeine statistics for the result cache
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Number of result sets currently cached
+     *
+     * @return Approximate entry count
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /*-----------------------------------------
+    WRITES - each one invalidates what it touched
+    -----------------------------------------*/
+
+    @Override
+    public void execute(String sql) throws DataAccessException {
+        try {
+            super.execute(sql);
+        } finally {
+            written(sql);
+        }
+    }
+
+    @Override
+    public int update(String sql) throws DataAccessException {
+        try {
+            return super.update(sql);
+        } finally {
+            written(sql);
+        }
+    }
+
+    @Override
+    public int update(PreparedStatementCreator psc) throws DataAccessException {
+        try {
+            return super.update(psc);
+        } finally {
+            written(psc);
+        }
+    }
+
+    @Override
+    public int update(PreparedStatementCreator psc, KeyHolder generatedKeyHolder) throws DataAccessException {
+        try {
+            return super.update(psc, generatedKeyHolder);
+        } finally {
+            written(psc);
+        }
+    }
+
+    @Override
+    public int update(String sql, PreparedStatementSetter pss) throws DataAccessException {
+        try {
+            return super.update(sql, pss);
+        } finally {
+            written(sql);
+        }
+    }
+
+    @Override
+    public int update(String sql, Object[] args, int[] argTypes) throws DataAccessException {
+        try {
+            return super.update(sql, args, argTypes);
+        } finally {
+            written(sql);
+        }
+    }
+
+    @Override
+    public int update(String sql, Object... args) throws DataAccessException {
+        try {
+            return super.update(sql, args);
+        } finally {
+            written(sql);
+        }
+    }
+
+    @Override
+    public int[] batchUpdate(String... sql) throws DataAccessException {
+        try {
+            return super.batchUpdate(sql);
+        } finally {
+            for (String statement : sql) {
+                written(statement);
+            }
+        }
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) throws DataAccessException {
+        try {
+            return super.batchUpdate(sql, pss);
+        } finally {
+            written(sql);
+        }
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, List<Object[]> batchArgs) throws DataAccessException {
+        try {
+            return super.batchUpdate(sql, batchArgs);
+        } finally {
+            written(sql);
+        }
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, List<Object[]> batchArgs, int[] argTypes) throws DataAccessException {
+        try {
+            return super.batchUpdate(sql, batchArgs, argTypes);
+        } finally {
+            written(sql);
+        }
+    }
+
+    @Override
+    public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+            ParameterizedPreparedStatementSetter<T> pss) throws DataAccessException {
+        try {
+            return super.batchUpdate(sql, batchArgs, batchSize, pss);
+        } finally {
+            written(sql);
+        }
+    }
+
+    private void written(PreparedStatementCreator psc) {
+        written(psc instanceof SqlProvider provider ? provider.getSql() : null);
+    }
+
+    /**
+     * Invalidates the table a statement wrote
+     * Inside a transaction cached results are dropped now and everything is
+     * invalidated again once it commits or rolls back; indexes are only told
+     * then, since they reload from other connections
+     */
+    private void written(String sql) {
+        Matcher matcher = sql == null ? null : WRITE_TABLE.matcher(sql);
+        String table = matcher != null && matcher.find() ? matcher.group(1).toLowerCase(Locale.ROOT) : null;
+
+        Runnable invalidation = table == null ? this::invalidateAll : () -> invalidate(table);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidation.run();
+            return;
+        }
+
+        if (table == null) {
+            dropAll();
+            versions.bumpAll();
+        } else {
+            drop(table);
+            versions.bump(table);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidation.run();
+            }
+        });
+    }
+
+    /**
+     * Bumps the tables, drops the entries that read them and returns every
+     * table affected; callers bump again once they are done
+     */
+    private Set<String> drop(String... tables) {
+        Set<String> affected = versions.bump(tables);
+        cache.asMap().values().removeIf(entry -> !Collections.disjoint(entry.tables(), affected));
+        return affected;
+    }
+
+    private void dropAll() {
+        versions.bumpAll();
+        cache.invalidateAll();
+    }
+
+    private static Set<String> readTables(String sql) {
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher matcher = READ_TABLE.matcher(sql);
+        while (matcher.find()) {
+            tables.add(matcher.group(1).toLowerCase(Locale.ROOT));
+        }
+        return tables;
+    }
+}
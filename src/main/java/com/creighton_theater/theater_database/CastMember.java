@@ -0,0 +1,30 @@
+package com.creighton_theater.theater_database;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A character in a show with the full name of the actor playing it
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record CastMember(
+        String characterName,
+        String actorName,
+        String netID,
+        int showID) {
+
+    /** Select list read by MAPPER, in component order (c = characters, st = student) */
+    public static final String COLUMNS = "c.charactername, st.firstname || ' ' || st.lastname, c.netid, c.showid";
+
+    /** Maps a row selected with COLUMNS by column position */
+    public static final RowMapper<CastMember> MAPPER = (rs, rowNum) -> new CastMember(
+            rs.getString(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getInt(4));
+}
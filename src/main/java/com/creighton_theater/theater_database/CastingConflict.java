@@ -0,0 +1,19 @@
+package com.creighton_theater.theater_database;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * An actor placed in one scene as more than one character
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record CastingConflict(
+        String netID,
+        String sceneName,
+        List<String> characterNames) {
+}
@@ -0,0 +1,274 @@
+package com.creighton_theater.theater_database;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps actors who play several characters in a show out of the same scene
+ * twice
+ * Each show keeps, per actor and character, a bitset of the scenes that
+ * character is in, indexed by scene ordinal. Placing a character in a scene
+ * only has to test one bit in each of the actor's other characters, and
+ * recasting a character only has to AND its scenes against the new actor's,
+ * so checks do not touch the database
+ * Shows are loaded on first use. Scene details are applied to the bitsets as
+ * they are saved; anything that renames or reorders scenes or characters
+ * drops the show. Writes to shows or student can reach any show and drop
+ * them all through the write hook
+ * Each show has its own lock. Loading, placed() and forget() take it, so a
+ * row saved while the show is loading is never lost, and writers wrap their
+ * check, write and placed() in locked() so two requests cannot both find a
+ * scene free
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class CastingConflictDetector {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    // Slots are never removed, so everyone locking a show locks the same one
+    private final Map<Integer, Slot> shows = new ConcurrentHashMap<>();
+
+    /**
+     * A show's lock and its state, null until loaded or after being dropped
+     */
+    private static final class Slot {
+        ShowState state;
+    }
+
+    /**
+     * One show's scene ordinals and, for each actor, the scenes each of their
+     * characters appears in
+     */
+    private static final class ShowState {
+        final List<String> sceneNames;
+        final Map<String, Integer> sceneIndex = new HashMap<>();
+        final Map<String, Map<String, BitSet>> actors = new HashMap<>();
+
+        ShowState(List<String> sceneNames) {
+            this.sceneNames = sceneNames;
+            for (int i = 0; i < sceneNames.size(); i++) {
+                sceneIndex.put(sceneNames.get(i), i);
+            }
+        }
+
+        synchronized String occupiedBy(String netID, String characterName, String sceneName) {
+            Integer scene = sceneIndex.get(sceneName);
+            Map<String, BitSet> characters = actors.get(netID);
+            if (scene == null || characters == null) {
+                return null;
+            }
+            for (Map.Entry<String, BitSet> other : characters.entrySet()) {
+                if (!other.getKey().equals(characterName) && other.getValue().get(scene)) {
+                    return other.getKey();
+                }
+            }
+            return null;
+        }
+
+        synchronized List<String> overlap(String characterName, String fromNetID, String toNetID) {
+            Map<String, BitSet> from = actors.get(fromNetID);
+            Map<String, BitSet> to = actors.get(toNetID);
+            BitSet scenes = from == null ? null : from.get(characterName);
+            List<String> clashes = new ArrayList<>();
+            if (scenes == null || to == null) {
+                return clashes;
+            }
+            BitSet shared = new BitSet();
+            to.forEach((name, other) -> {
+                if (!name.equals(characterName) || !fromNetID.equals(toNetID)) {
+                    shared.or(other);
+                }
+            });
+            shared.and(scenes);
+            shared.stream().forEach(scene -> clashes.add(sceneNames.get(scene)));
+            return clashes;
+        }
+
+        synchronized void set(String netID, String characterName, String sceneName, boolean present) {
+            Integer scene = sceneIndex.get(sceneName);
+            if (scene == null) {
+                return;
+            }
+            actors.computeIfAbsent(netID, k -> new HashMap<>())
+                    .computeIfAbsent(characterName, k -> new BitSet(sceneNames.size()))
+                    .set(scene, present);
+        }
+
+        synchronized List<CastingConflict> conflicts() {
+            List<CastingConflict> conflicts = new ArrayList<>();
+            new TreeMap<>(actors).forEach((netID, characters) -> {
+                if (characters.size() < 2) {
+                    return;
+                }
+                // Scenes seen in one of this actor's characters, and those seen twice
+                BitSet seen = new BitSet();
+                BitSet doubled = new BitSet();
+                characters.values().forEach(scenes -> {
+                    BitSet again = (BitSet) scenes.clone();
+                    again.and(seen);
+                    doubled.or(again);
+                    seen.or(scenes);
+                });
+                doubled.stream().forEach(scene -> {
+                    List<String> names = new ArrayList<>();
+                    characters.forEach((name, scenes) -> {
+                        if (scenes.get(scene)) {
+                            names.add(name);
+                        }
+                    });
+                    names.sort(null);
+                    conflicts.add(new CastingConflict(netID, sceneNames.get(scene), names));
+                });
+            });
+            return conflicts;
+        }
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        tableVersions.subscribe(tables -> forgetAll(), "shows", "student");
+    }
+
+    /**
+     * Checks whether placing a character in a scene would put its actor on
+     * stage twice
+     *
+     * @param showID        The show ID
+     * @param netID         The actor's netID
+     * @param characterName The character being placed
+     * @param sceneName     The scene
+     * @return The actor's other character already in that scene, or null
+     */
+    public String check(int showID, String netID, String characterName, String sceneName) {
+        return state(showID).occupiedBy(netID, characterName, sceneName);
+    }
+
+    /**
+     * Checks whether handing a character to another actor would put that
+     * actor in a scene twice
+     *
+     * @param showID        The show ID
+     * @param characterName The character being recast
+     * @param fromNetID     The current actor
+     * @param toNetID       The new actor
+     * @return Scenes where the new actor already plays someone else (empty if none)
+     */
+    public List<String> checkRecast(int showID, String characterName, String fromNetID, String toNetID) {
+        return state(showID).overlap(characterName, fromNetID, toNetID);
+    }
+
+    /**
+     * Every scene in a show where an actor appears as more than one character
+     *
+     * @param showID The show ID
+     * @return Conflicts ordered by netID, then running order
+     */
+    public List<CastingConflict> conflicts(int showID) {
+        return state(showID).conflicts();
+    }
+
+    /**
+     * Records scene details that were just saved or deleted
+     *
+     * @param showID        The show ID
+     * @param netID         The actor's netID
+     * @param characterName The character
+     * @param sceneName     The scene
+     * @param present       True if the row was added, false if deleted
+     */
+    public void placed(int showID, String netID, String characterName, String sceneName, boolean present) {
+        Slot slot = shows.get(showID);
+        if (slot == null) {
+            return;
+        }
+        synchronized (slot) {
+            if (slot.state != null) {
+                slot.state.set(netID, characterName, sceneName, present);
+            }
+        }
+    }
+
+    /**
+     * Runs a check and the write it allows with no other locked work on the
+     * same show in between
+     *
+     * @param showID The show ID
+     * @param work   Checks, writes and calls placed() or forget()
+     * @return What work returned
+     */
+    public <T> T locked(int showID, Supplier<T> work) {
+        synchronized (slot(showID)) {
+            return work.get();
+        }
+    }
+
+    /**
+     * Drops a show after its scenes or characters changed; it is reloaded on
+     * the next check
+     *
+     * @param showID The show ID
+     */
+    public void forget(int showID) {
+        Slot slot = shows.get(showID);
+        if (slot != null) {
+            synchronized (slot) {
+                slot.state = null;
+            }
+        }
+    }
+
+    /**
+     * Drops every show, for changes that can reach any show (a show or
+     * student being deleted, a netID changing)
+     */
+    public void forgetAll() {
+        shows.keySet().forEach(this::forget);
+    }
+
+    private Slot slot(int showID) {
+        return shows.computeIfAbsent(showID, id -> new Slot());
+    }
+
+    /**
+     * The show's state, loaded under its lock but outside the map, so other
+     * shows are not held up
+     */
+    private ShowState state(int showID) {
+        Slot slot = slot(showID);
+        synchronized (slot) {
+            if (slot.state == null) {
+                slot.state = ReplicaRoutingDataSource.onPrimary(() -> load(showID));
+            }
+            return slot.state;
+        }
+    }
+
+    private ShowState load(int showID) {
+        ShowState state = new ShowState(jdbcTemplate.queryForList(
+                "SELECT scenename FROM scene WHERE showid = ? ORDER BY act, scenename", String.class, showID));
+        jdbcTemplate.query("SELECT netid, charactername, scenename FROM character_in_scene WHERE showid = ?",
+                rs -> {
+                    state.set(rs.getString(1), rs.getString(2), rs.getString(3), true);
+                }, showID);
+        return state;
+    }
+}
@@ -0,0 +1,38 @@
+package com.creighton_theater.theater_database;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A character (role) joined to the actor's name and the show it belongs to
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record CharacterRole(
+        String firstName,
+        String lastName,
+        String characterName,
+        String netID,
+        int showID,
+        String showName,
+        String showSemester) {
+
+    /** Select list read by MAPPER, in component order (c = characters, s = student, sh = shows) */
+    public static final String COLUMNS = """
+            s.firstname, s.lastname, c.charactername, c.netid, c.showid,
+            sh.showname, sh.yearsemester""";
+
+    /** Maps a row selected with COLUMNS by column position */
+    public static final RowMapper<CharacterRole> MAPPER = (rs, rowNum) -> new CharacterRole(
+            rs.getString(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getInt(5),
+            rs.getString(6),
+            rs.getString(7));
+}
@@ -0,0 +1,48 @@
+package com.creighton_theater.theater_database;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A crew member joined to the student's name
+ * The trained/reading flags are already formatted as "Yes"/"No" by COLUMNS
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record Crew(
+        String crewID,
+        String firstName,
+        String lastName,
+        String wigTrained,
+        String makeupTrained,
+        String musicReading,
+        String lighting,
+        String sound,
+        String specialty,
+        String notes) {
+
+    /** Select list read by MAPPER, in component order (c = crew, s = student) */
+    public static final String COLUMNS = """
+            c.crewid, s.firstname, s.lastname,
+            CASE WHEN c.wigtrained = true THEN 'Yes' ELSE 'No' END,
+            CASE WHEN c.makeuptrained = true THEN 'Yes' ELSE 'No' END,
+            CASE WHEN c.musicreading = true THEN 'Yes' ELSE 'No' END,
+            c.lighting, c.sound, c.specialty, c.notes""";
+
+    /** Maps a row selected with COLUMNS by column position */
+    public static final RowMapper<Crew> MAPPER = (rs, rowNum) -> new Crew(
+            rs.getString(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getString(6),
+            rs.getString(7),
+            rs.getString(8),
+            rs.getString(9),
+            rs.getString(10));
+}
@@ -0,0 +1,381 @@
+package com.creighton_theater.theater_database;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk import of students and actors from CSV
+ * Rows are read in chunks, validated in parallel, and the valid ones are
+ * streamed with COPY into a temporary staging table. One INSERT ... SELECT
+ * then merges the staging table into the real one (adding new people and
+ * updating existing ones), all in a single transaction
+ * Invalid lines are skipped and reported; they never stop the rest of the
+ * file from loading
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class CsvImporter {
+
+    /** Records validated together before being handed to COPY */
+    private static final int CHUNK_SIZE = 5000;
+
+    enum Type {
+        TEXT, INTEGER, DECIMAL
+    }
+
+    /**
+     * A column that can be imported
+     *
+     * @param name      Lowercase column name, also the CSV header
+     * @param type      How values are checked
+     * @param maxLength Longest text accepted (schema.sql length)
+     * @param required  Must be in the header and non-empty on every line
+     */
+    record Column(String name, Type type, int maxLength, boolean required) {
+    }
+
+    /**
+     * An import destination
+     *
+     * @param table        Table merged into, keyed on netid
+     * @param columns      Columns that may appear in the file, netid first
+     * @param missingValue Written for optional columns left out or empty
+     * @param needsStudent Whether each netid must already be a student
+     */
+    record Target(String table, List<Column> columns, String missingValue, boolean needsStudent) {
+    }
+
+    /**
+     * Outcome of an import
+     *
+     * @param imported Rows added or updated
+     * @param errors   Lines that were skipped, in file order
+     */
+    public record Result(int imported, List<RowError> errors) {
+    }
+
+    // Same defaults as studentRestController.addStudent: optional fields are
+    // stored as empty strings
+    static final Target STUDENTS = new Target("student", List.of(
+            text("netid", 8, true),
+            text("firstname", 45, true),
+            text("lastname", 45, true),
+            text("gradelevel", 45, true),
+            text("pronouns", 45, false),
+            text("specialnotes", 100, false),
+            text("email", 45, false),
+            text("allergies_sensitivities", 45, false)), "", false);
+
+    static final Target ACTORS = new Target("actor", List.of(
+            text("netid", 8, true),
+            new Column("yearsactingexperience", Type.INTEGER, 0, false),
+            text("skintone", 45, false),
+            text("piercings", 50, false),
+            text("haircolor", 45, false),
+            text("previousinjuries", 90, false),
+            text("specialnotes", 200, false),
+            text("height", 45, false),
+            text("ringsize", 45, false),
+            text("shoesize", 45, false),
+            decimal("headcirc"),
+            decimal("neckbase"),
+            decimal("chest"),
+            decimal("waist"),
+            decimal("highhip"),
+            decimal("lowhip"),
+            decimal("armseyetoarmseyefront"),
+            decimal("necktowaistfront"),
+            decimal("armseyetoarmseyeback"),
+            decimal("necktowaistback"),
+            decimal("centerbacktowrist"),
+            decimal("outsleevetowrist"),
+            decimal("outseambelowknee"),
+            decimal("outseamtoankle"),
+            decimal("outseamtofloor"),
+            text("othernotes", 100, false)), null, true);
+
+    @Autowired
+    private CachingJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Imports students; the header must name netid, firstname, lastname and
+     * gradelevel and may add pronouns, specialnotes, email and
+     * allergies_sensitivities
+     *
+     * @param csv The uploaded file
+     * @return Rows imported and lines rejected
+     * @throws IOException              If the file cannot be read
+     * @throws IllegalArgumentException If the header is unusable
+     */
+    public Result importStudents(Reader csv) throws IOException {
+        return importInto(STUDENTS, csv);
+    }
+
+    /**
+     * Imports actor measurement sheets; the header must name netid and may
+     * add any other actor column. Each netid must already be a student
+     *
+     * @param csv The uploaded file
+     * @return Rows imported and lines rejected
+     * @throws IOException              If the file cannot be read
+     * @throws IllegalArgumentException If the header is unusable
+     */
+    public Result importActors(Reader csv) throws IOException {
+        return importInto(ACTORS, csv);
+    }
+
+    private Result importInto(Target target, Reader csv) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(csv));
+        CsvReader.Record header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        int[] sourceIndex = mapHeader(target, header.fields());
+
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                List<RowError> errors = jdbcTemplate.execute(
+                        (ConnectionCallback<List<RowError>>) connection -> stage(target, reader, sourceIndex,
+                                connection));
+
+                if (target.needsStudent()) {
+                    errors.addAll(jdbcTemplate.query("""
+                            SELECT i.line_number, i.netid
+                            FROM %s_import i
+                            WHERE NOT EXISTS (SELECT 1 FROM student s WHERE s.netid = i.netid)
+                            """.formatted(target.table()),
+                            (rs, rowNum) -> new RowError(rs.getInt(1),
+                                    "No student with netID '" + rs.getString(2) + "'")));
+                    jdbcTemplate.update("""
+                            DELETE FROM %s_import i
+                            WHERE NOT EXISTS (SELECT 1 FROM student s WHERE s.netid = i.netid)
+                            """.formatted(target.table()));
+                }
+
+                int imported = jdbcTemplate.update(mergeSql(target, sourceIndex));
+                errors.sort(Comparator.comparingInt(RowError::row));
+                return new Result(imported, errors);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Maps each target column to its position in the file (-1 if absent)
+     */
+    static int[] mapHeader(Target target, List<String> header) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (!name.isEmpty() && positions.putIfAbsent(name, i) != null) {
+                throw new IllegalArgumentException("Column '" + name + "' appears twice in the header");
+            }
+        }
+
+        List<String> unknown = positions.keySet().stream()
+                .filter(name -> target.columns().stream().noneMatch(column -> column.name().equals(name)))
+                .sorted()
+                .toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown columns: " + String.join(", ", unknown));
+        }
+
+        int[] sourceIndex = new int[target.columns().size()];
+        for (int i = 0; i < sourceIndex.length; i++) {
+            Column column = target.columns().get(i);
+            sourceIndex[i] = positions.getOrDefault(column.name(), -1);
+            if (column.required() && sourceIndex[i] < 0) {
+                throw new IllegalArgumentException("Missing required column '" + column.name() + "'");
+            }
+        }
+        return sourceIndex;
+    }
+
+    /**
+     * Creates the staging table and COPYs every valid record into it
+     *
+     * @return The records that were rejected
+     */
+    private List<RowError> stage(Target target, CsvReader reader, int[] sourceIndex, Connection connection)
+            throws SQLException {
+        String staging = target.table() + "_import";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE " + staging + " (LIKE " + target.table()
+                    + ", line_number integer) ON COMMIT DROP");
+        }
+
+        String columns = target.columns().stream().map(Column::name).collect(Collectors.joining(", "));
+        CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY " + staging + " (" + columns + ", line_number) FROM STDIN WITH (FORMAT csv)");
+
+        List<RowError> errors = new ArrayList<>();
+        Map<String, Integer> firstLine = new HashMap<>();
+        try {
+            List<CsvReader.Record> chunk = new ArrayList<>(CHUNK_SIZE);
+            CsvReader.Record record;
+            do {
+                record = reader.next();
+                if (record != null) {
+                    chunk.add(record);
+                }
+                if (chunk.size() == CHUNK_SIZE || (record == null && !chunk.isEmpty())) {
+                    List<Object> checked = chunk.parallelStream()
+                            .map(r -> validate(target, sourceIndex, r))
+                            .toList();
+
+                    // Duplicates are found in file order, so the first line wins
+                    for (int i = 0; i < checked.size(); i++) {
+                        if (checked.get(i) instanceof RowError error) {
+                            errors.add(error);
+                            continue;
+                        }
+                        CsvReader.Record row = chunk.get(i);
+                        String netID = row.fields().get(sourceIndex[0]).trim();
+                        Integer earlier = firstLine.putIfAbsent(netID, row.line());
+                        if (earlier != null) {
+                            errors.add(new RowError(row.line(),
+                                    "netID '" + netID + "' already appears on line " + earlier));
+                            continue;
+                        }
+                        byte[] line = ((String) checked.get(i)).getBytes(StandardCharsets.UTF_8);
+                        copy.writeToCopy(line, 0, line.length);
+                    }
+                    chunk.clear();
+                }
+            } while (record != null);
+            copy.endCopy();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Checks one record and encodes it as a COPY line
+     *
+     * @return The CSV line to COPY, or a RowError
+     */
+    static Object validate(Target target, int[] sourceIndex, CsvReader.Record record) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < sourceIndex.length; i++) {
+            Column column = target.columns().get(i);
+            String value = sourceIndex[i] >= 0 && sourceIndex[i] < record.fields().size()
+                    ? record.fields().get(sourceIndex[i]).trim()
+                    : "";
+
+            String problem = null;
+            if (value.isEmpty()) {
+                if (column.required()) {
+                    problem = column.name() + " is required";
+                }
+            } else if (column.type() == Type.TEXT && value.length() > column.maxLength()) {
+                problem = column.name() + " is longer than " + column.maxLength() + " characters";
+            } else if (column.type() == Type.INTEGER && !isInteger(value)) {
+                problem = column.name() + " '" + value + "' is not a whole number";
+            } else if (column.type() == Type.DECIMAL && !isDecimal(value)) {
+                problem = column.name() + " '" + value + "' is not a number";
+            }
+            if (problem != null) {
+                return new RowError(record.line(), problem);
+            }
+
+            String stored = value.isEmpty() ? target.missingValue() : value;
+            line.append(quote(stored)).append(',');
+        }
+        return line.append(record.line()).append('\n').toString();
+    }
+
+    /**
+     * Upserts the staging table into the target, updating only the columns
+     * the file actually contained
+     */
+    private static String mergeSql(Target target, int[] sourceIndex) {
+        String columns = target.columns().stream().map(Column::name).collect(Collectors.joining(", "));
+
+        Map<String, String> updates = new LinkedHashMap<>();
+        for (int i = 1; i < sourceIndex.length; i++) {
+            if (sourceIndex[i] >= 0) {
+                String name = target.columns().get(i).name();
+                updates.put(name, name + " = EXCLUDED." + name);
+            }
+        }
+        String onConflict = updates.isEmpty()
+                ? "DO NOTHING"
+                : "DO UPDATE SET " + String.join(", ", updates.values());
+
+        return """
+                INSERT INTO %s (%s)
+                SELECT %s FROM %s_import
+                ON CONFLICT (netid) %s
+                """.formatted(target.table(), columns, columns, target.table(), onConflict);
+    }
+
+    /**
+     * Quotes a value for COPY's CSV format; null becomes an unquoted empty
+     * field, which COPY reads as NULL
+     */
+    private static String quote(String value) {
+        return value == null ? "" : "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static boolean isInteger(String value) {
+        try {
+            Integer.parseInt(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // BigDecimal rather than Double.parseDouble, which also accepts values
+    // PostgreSQL rejects ("12d", "0x1p3")
+    private static boolean isDecimal(String value) {
+        try {
+            new BigDecimal(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static Column text(String name, int maxLength, boolean required) {
+        return new Column(name, Type.TEXT, maxLength, required);
+    }
+
+    private static Column decimal(String name) {
+        return new Column(name, Type.DECIMAL, 0, false);
+    }
+}
@@ -0,0 +1,128 @@
+package com.creighton_theater.theater_database;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 CSV reader for uploaded spreadsheets
+ * Handles quoted fields containing commas, doubled quotes and line breaks,
+ * CRLF or LF line endings, and the byte order mark Excel puts in front of
+ * UTF-8 exports. Blank lines are skipped
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+public class CsvReader {
+
+    /**
+     * One parsed record
+     *
+     * @param line   Line number (1-based) the record starts on
+     * @param fields Field values, unquoted
+     */
+    public record Record(int line, List<String> fields) {
+    }
+
+    private final Reader reader;
+    private int line = 1;
+
+    // Character read past the end of the last record, or -2 for none
+    private int pending = -2;
+
+    /**
+     * Wraps a reader; the caller should pass a buffered one
+     *
+     * @param reader The CSV text
+     */
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next record
+     *
+     * @return The record, or null at end of input
+     * @throws IOException If reading fails or a quoted field is never closed
+     */
+    public Record next() throws IOException {
+        int c = read();
+        if (c == '\uFEFF' && line == 1) {
+            c = read();
+        }
+        while (c == '\r' || c == '\n') {
+            c = skipLineBreak(c);
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        int start = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Line " + start + ": quoted field is never closed");
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c == '"') {
+                        field.append('"');
+                        c = read();
+                    } else {
+                        quoted = false;
+                    }
+                    continue;
+                }
+                if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+                c = read();
+                continue;
+            }
+
+            if (c == -1 || c == '\r' || c == '\n') {
+                fields.add(field.toString());
+                if (c != -1) {
+                    pending = skipLineBreak(c);
+                }
+                return new Record(start, fields);
+            }
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Consumes one line break (\r, \n or \r\n) and returns the character after it
+     */
+    private int skipLineBreak(int c) throws IOException {
+        line++;
+        int next = read();
+        if (c == '\r' && next == '\n') {
+            next = read();
+        }
+        return next;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,71 @@
+package com.creighton_theater.theater_database;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Streams a query to the HTTP response as CSV using PostgreSQL's
+ * COPY ... TO STDOUT
+ * The database formats the CSV itself and the driver copies it to the
+ * response in small buffers, so no rows are ever mapped to Java objects and
+ * memory use does not grow with the result
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class CsvRowStreamer {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Builds a streaming CSV download for a query
+     * COPY cannot take bind parameters, so the query must not contain any
+     * user-supplied text; the query runs when the response body is written
+     *
+     * @param query    The SELECT to export
+     * @param filename Suggested name of the downloaded file
+     * @return 200 response whose body is the query's rows, with a header line
+     */
+    public ResponseEntity<StreamingResponseBody> stream(String query, String filename) {
+        String copy = "COPY (" + query + ") TO STDOUT WITH (FORMAT csv, HEADER)";
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                    try {
+                        return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(copy, outputStream);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Client went away mid-download; nothing left to send it
+                System.err.println("Error streaming CSV: " + e.getCause().getMessage());
+            } catch (DataAccessException e) {
+                System.err.println("Error streaming CSV: " + e.getMessage());
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,56 @@
+package com.creighton_theater.theater_database;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+
+/**
+ * Database beans that replace Spring Boot's defaults
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Configuration
+public class DatabaseConfig {
+
+    /**
+     * The application's JdbcTemplate, with the query result cache
+     * Declaring it switches off Boot's auto-configured JdbcTemplate, so the
+     * spring.jdbc.template.* properties are applied here the same way
+     *
+     * @param dataSource  The connection pool
+     * @param versions    Per-table version counters
+     * @param properties  spring.jdbc.* settings
+     * @param translators Custom SQL exception translator, if one is defined
+     * @param maximumSize Most result sets kept in the cache
+     * @param ttl         Longest a cached result is served
+     * @return The template every controller uses
+     */
+    @Bean
+    public CachingJdbcTemplate jdbcTemplate(DataSource dataSource, TableVersions versions, JdbcProperties properties,
+            ObjectProvider<SQLExceptionTranslator> translators,
+            @Value("${theater.query-cache.maximum-size:500}") long maximumSize,
+            @Value("${theater.query-cache.ttl:10m}") Duration ttl) {
+        CachingJdbcTemplate jdbcTemplate = new CachingJdbcTemplate(dataSource, versions, maximumSize, ttl);
+
+        JdbcProperties.Template template = properties.getTemplate();
+        jdbcTemplate.setIgnoreWarnings(template.isIgnoreWarnings());
+        jdbcTemplate.setFetchSize(template.getFetchSize());
+        jdbcTemplate.setMaxRows(template.getMaxRows());
+        if (template.getQueryTimeout() != null) {
+            jdbcTemplate.setQueryTimeout((int) template.getQueryTimeout().getSeconds());
+        }
+        jdbcTemplate.setSkipResultsProcessing(template.isSkipResultsProcessing());
+        jdbcTemplate.setSkipUndeclaredResults(template.isSkipUndeclaredResults());
+        jdbcTemplate.setResultsMapCaseInsensitive(template.isResultsMapCaseInsensitive());
+        translators.ifUnique(jdbcTemplate::setExceptionTranslator);
+        return jdbcTemplate;
+    }
+}
@@ -0,0 +1,20 @@
+package com.creighton_theater.theater_database;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * How many costume changes one dresser is assigned in a show
+ * doubleBooked counts scene transitions where they have two or more quick
+ * changes at once
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record DresserLoad(
+        String crewID,
+        int changes,
+        int quickChanges,
+        int doubleBooked) {
+}
@@ -0,0 +1,72 @@
+package com.creighton_theater.theater_database;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Conditional GET for endpoints marked with @ReadsTables
+ * The ETag is built from the versions of the tables the endpoint reads, so
+ * it is known before any query runs: when the client's If-None-Match still
+ * matches, a 304 is sent and the handler is skipped entirely
+ * The tag also carries the startup time, because counters restart at zero,
+ * and the current query-cache TTL window, so edits made outside this
+ * application are picked up as soon as the cache would pick them up
+ * With a read replica, responses are left untagged while it may still be
+ * catching up with a write to their tables, since its rows would otherwise
+ * be kept under the new versions until the next write
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class ETagInterceptor implements HandlerInterceptor {
+
+    private final String startedAt = Long.toString(System.currentTimeMillis(), 36);
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Value("${theater.query-cache.ttl:10m}")
+    private Duration ttl;
+
+    // Only present when a read replica is configured
+    @Autowired
+    private ObjectProvider<ReplicaRoutingInterceptor> replicaRoutingInterceptor;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // A streamed response is re-dispatched once it finishes; it was tagged
+        // on the way in and its headers are already sent
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        ReadsTables reads = method.getMethodAnnotation(ReadsTables.class);
+        if (reads == null) {
+            return true;
+        }
+        ReplicaRoutingInterceptor replica = replicaRoutingInterceptor.getIfAvailable();
+        if (replica != null && replica.catchingUp(reads.value())) {
+            return true;
+        }
+
+        long window = System.currentTimeMillis() / Math.max(ttl.toMillis(), 1);
+        String etag = "W/\"" + startedAt + "." + Long.toString(window, 36) + "."
+                + tableVersions.sum(reads.value()) + "\"";
+
+        // Browsers may keep the response but must check back before reusing it
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -0,0 +1,143 @@
+package com.creighton_theater.theater_database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Wraps the connection pool so every statement execution is timed by
+ * SqlMetrics, whichever JdbcTemplate method or raw JDBC code ran it
+ * Only the execute call itself is timed, not reading the ResultSet
+ * afterwards. Bind parameters are counted, never kept
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    // Looked up on first use; SqlMetrics needs the MeterRegistry, which is
+    // created after the DataSource
+    private final Supplier<SqlMetrics> metrics;
+
+    public InstrumentedDataSource(DataSource target, Supplier<SqlMetrics> metrics) {
+        super(target);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new ConnectionHandler(connection));
+    }
+
+    /**
+     * Hands out timed statements
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("unwrap") && args[0] == Connection.class) {
+                return proxy;
+            }
+            Object result = call(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> statement(proxy, PreparedStatement.class, result, (String) args[0]);
+                case "prepareCall" -> statement(proxy, CallableStatement.class, result, (String) args[0]);
+                case "createStatement" -> statement(proxy, Statement.class, result, null);
+                default -> result;
+            };
+        }
+
+        private Object statement(Object connection, Class<? extends Statement> type, Object statement, String sql) {
+            return Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                    new Class<?>[] { type }, new StatementHandler((Connection) connection, (Statement) statement, sql));
+        }
+    }
+
+    /**
+     * Times execute calls and counts the bind parameters set before them
+     * Plain Statements carry their SQL in the execute call, or in addBatch
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Connection connection;
+        private final Statement target;
+        private String sql;
+        private int parameters;
+
+        StatementHandler(Connection connection, Statement target, String sql) {
+            this.connection = connection;
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getConnection")) {
+                // The wrapping connection, so its statements stay timed too
+                return connection;
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters = Math.max(parameters, index);
+            } else if (name.equals("addBatch") && args != null && args.length == 1) {
+                sql = (String) args[0];
+            } else if (name.equals("clearParameters")) {
+                parameters = 0;
+            }
+            if (!EXECUTE.contains(name)) {
+                return call(target, method, args);
+            }
+
+            String statement = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = call(target, method, args);
+                failed = false;
+                return result;
+            } finally {
+                metrics.get().record(statement, System.nanoTime() - start, parameters, failed);
+            }
+        }
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.creighton_theater.theater_database;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams query results to the HTTP response as a JSON array, one row at a
+ * time, instead of building a List first
+ * Rows are read in batches of spring.jdbc.template.fetch-size (applied by the
+ * auto-configured JdbcTemplate), so heap use stays flat regardless of how
+ * many rows the query returns
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class JsonRowStreamer {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Builds a streaming JSON response for a query
+     * The query runs when the response body is written, not when this is called
+     *
+     * @param sql    The SELECT to run
+     * @param mapper Maps each row to the record that is serialized
+     * @param args   Bind parameters for the query
+     * @return 200 response whose body writes each row as it is fetched
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(String sql, RowMapper<T> mapper, Object... args) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator json = objectMapper.createGenerator(outputStream)) {
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.writeStartArray();
+
+                // The PostgreSQL driver only honours the fetch size (and stops
+                // buffering the whole result) inside a transaction
+                readOnlyTransaction.executeWithoutResult(
+                        status -> jdbcTemplate.query(sql, rs -> {
+                            try {
+                                json.writeObject(mapper.mapRow(rs, 0));
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }, args));
+
+                json.writeEndArray();
+            } catch (UncheckedIOException e) {
+                // Client went away mid-stream; nothing left to send it
+                System.err.println("Error streaming rows: " + e.getCause().getMessage());
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
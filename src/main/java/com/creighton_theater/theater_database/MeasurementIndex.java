@@ -0,0 +1,307 @@
+package com.creighton_theater.theater_database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory nearest-neighbour search over actor body measurements, for
+ * finding who a stock costume will fit
+ * Measurements are kept row-major in one flat double[] (one row of
+ * MEASUREMENTS per actor, NaN where a measurement was never taken), so a
+ * search is a single pass of straight-line arithmetic over contiguous memory
+ * Loaded when the application starts. addActor and editActor write through
+ * updatingActor() and re-read their one row; any other write to actor or
+ * student (imports, deletes, student edits) marks the index stale through
+ * the write hook, and the next search reloads it
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class MeasurementIndex {
+
+    /** Searchable measurement columns, in row order */
+    public static final List<String> MEASUREMENTS = List.of(
+            "headcirc", "neckbase", "chest", "waist", "highhip", "lowhip",
+            "armseyetoarmseyefront", "necktowaistfront", "armseyetoarmseyeback",
+            "necktowaistback", "centerbacktowrist", "outsleevetowrist",
+            "outseambelowknee", "outseamtoankle", "outseamtofloor");
+
+    /** Most matches one search returns */
+    public static final int MAX_RESULTS = 100;
+
+    private static final int D = MEASUREMENTS.size();
+
+    private static final String SELECT = "SELECT a.netid, s.firstname, s.lastname, a."
+            + String.join(", a.", MEASUREMENTS) + "\nFROM actor a\nJOIN student s ON s.netid = a.netid\n";
+
+    // Set while this thread runs a single-actor write through updatingActor()
+    private static final ThreadLocal<String> UPDATING = new ThreadLocal<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock; rows [0, size) are live, row i is values[i*D .. i*D+D)
+    private boolean loaded;
+    private int size;
+    private double[] values = new double[0];
+    private String[] netIDs = new String[0];
+    private String[] firstNames = new String[0];
+    private String[] lastNames = new String[0];
+    private final Map<String, Integer> rowOf = new HashMap<>();
+
+    /**
+     * Loads every actor once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        tableVersions.subscribe(this::changed, "actor", "student");
+    }
+
+    /**
+     * Reloads every actor now
+     * If the reload fails the index is marked stale and rebuilt on the next
+     * search
+     */
+    public void refresh() {
+        lock.writeLock().lock();
+        try {
+            reload();
+        } catch (DataAccessException e) {
+            System.err.println("Error loading measurement index: " + e.getMessage());
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a write that touches only one actor's row, then re-reads just that
+     * row instead of letting the write hook mark the whole index stale
+     *
+     * @param netID The actor being written
+     * @param write The write
+     * @return What write returned
+     */
+    public <T> T updatingActor(String netID, Supplier<T> write) {
+        UPDATING.set(netID);
+        try {
+            T result = write.get();
+            actorChanged(netID);
+            return result;
+        } finally {
+            UPDATING.remove();
+        }
+    }
+
+    /**
+     * Marks the index stale after a write to actor or student, unless it is
+     * this thread's own single-actor write
+     */
+    private void changed(Set<String> tables) {
+        if (UPDATING.get() != null && !tables.contains("student")) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-reads one actor, or drops it if it is gone
+     */
+    private void actorChanged(String netID) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            List<Integer> found = jdbcTemplate.query(SELECT + "WHERE a.netid = ?",
+                    (rs, rowNum) -> put(rs.getString(1), rs.getString(2), rs.getString(3), read(rs)), netID);
+            if (found.isEmpty()) {
+                remove(netID);
+            }
+        } catch (DataAccessException e) {
+            System.err.println("Error updating measurement index: " + e.getMessage());
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the actors whose measurements are closest to a garment's
+     * Only the measurements given are compared. An actor missing some of them
+     * is compared on the rest; the distance is a weighted mean over the
+     * measurements compared, so it does not shrink just because fewer were
+     * taken. Actors with none of them are left out
+     *
+     * @param target  Garment measurements by column name
+     * @param weights Relative importance by column name (default 1)
+     * @param k       Number of matches to return
+     * @return Closest actors first
+     */
+    public List<MeasurementMatch> nearest(Map<String, Double> target, Map<String, Double> weights, int k) {
+        // Compact the query to the dimensions actually given
+        int m = target.size();
+        int[] dims = new int[m];
+        double[] t = new double[m];
+        double[] w = new double[m];
+        int j = 0;
+        for (Map.Entry<String, Double> entry : target.entrySet()) {
+            dims[j] = MEASUREMENTS.indexOf(entry.getKey());
+            t[j] = entry.getValue();
+            w[j] = weights.getOrDefault(entry.getKey(), 1.0);
+            j++;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (!loaded) {
+                lock.readLock().unlock();
+                refresh();
+                lock.readLock().lock();
+            }
+
+            // Best k so far, kept sorted by distance (k is small)
+            int[] bestRow = new int[k];
+            double[] bestDistance = new double[k];
+            int[] bestCompared = new int[k];
+            int found = 0;
+
+            for (int row = 0, base = 0; row < size; row++, base += D) {
+                double sum = 0;
+                double used = 0;
+                int compared = 0;
+                for (int i = 0; i < m; i++) {
+                    double v = values[base + dims[i]];
+                    if (v == v) { // not NaN
+                        double d = v - t[i];
+                        sum += w[i] * d * d;
+                        used += w[i];
+                        compared++;
+                    }
+                }
+                if (compared == 0 || used == 0) {
+                    continue;
+                }
+                double distance = Math.sqrt(sum / used);
+                if (found == k && distance >= bestDistance[k - 1]) {
+                    continue;
+                }
+
+                int at = found < k ? found++ : k - 1;
+                while (at > 0 && bestDistance[at - 1] > distance) {
+                    bestRow[at] = bestRow[at - 1];
+                    bestDistance[at] = bestDistance[at - 1];
+                    bestCompared[at] = bestCompared[at - 1];
+                    at--;
+                }
+                bestRow[at] = row;
+                bestDistance[at] = distance;
+                bestCompared[at] = compared;
+            }
+
+            List<MeasurementMatch> matches = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                int row = bestRow[i];
+                matches.add(new MeasurementMatch(netIDs[row], firstNames[row], lastNames[row],
+                        bestDistance[i], bestCompared[i], m - bestCompared[i]));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void reload() {
+        // Read everything before touching the arrays so a failed load keeps the old rows
+        List<Object[]> rows = ReplicaRoutingDataSource.onPrimary(() -> jdbcTemplate.query(SELECT,
+                (rs, rowNum) -> new Object[] { rs.getString(1), rs.getString(2), rs.getString(3), read(rs) }));
+        size = 0;
+        rowOf.clear();
+        for (Object[] row : rows) {
+            put((String) row[0], (String) row[1], (String) row[2], (double[]) row[3]);
+        }
+        loaded = true;
+    }
+
+    private static double[] read(ResultSet rs) throws SQLException {
+        double[] row = new double[D];
+        for (int i = 0; i < D; i++) {
+            double v = rs.getDouble(4 + i);
+            row[i] = rs.wasNull() ? Double.NaN : v;
+        }
+        return row;
+    }
+
+    private int put(String netID, String firstName, String lastName, double[] measurements) {
+        Integer existing = rowOf.get(netID);
+        int row = existing != null ? existing : size++;
+        if (existing == null) {
+            if (row == netIDs.length) {
+                int capacity = Math.max(16, row * 2);
+                values = Arrays.copyOf(values, capacity * D);
+                netIDs = Arrays.copyOf(netIDs, capacity);
+                firstNames = Arrays.copyOf(firstNames, capacity);
+                lastNames = Arrays.copyOf(lastNames, capacity);
+            }
+            rowOf.put(netID, row);
+        }
+        netIDs[row] = netID;
+        firstNames[row] = firstName;
+        lastNames[row] = lastName;
+        System.arraycopy(measurements, 0, values, row * D, D);
+        return row;
+    }
+
+    /**
+     * Removes a row by moving the last row into its place
+     */
+    private void remove(String netID) {
+        Integer row = rowOf.remove(netID);
+        if (row == null) {
+            return;
+        }
+        int last = --size;
+        if (row != last) {
+            netIDs[row] = netIDs[last];
+            firstNames[row] = firstNames[last];
+            lastNames[row] = lastNames[last];
+            System.arraycopy(values, last * D, values, row * D, D);
+            rowOf.put(netIDs[row], row);
+        }
+        netIDs[last] = firstNames[last] = lastNames[last] = null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.creighton_theater.theater_database;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * An actor whose measurements are close to the ones searched for
+ * distance is the weighted root-mean-square difference over the measurements
+ * both sides have, in the measurements' own units
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record MeasurementMatch(
+        String netID,
+        String firstName,
+        String lastName,
+        double distance,
+        int compared,
+        int missing) {
+}
@@ -0,0 +1,59 @@
+package com.creighton_theater.theater_database;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+
+/**
+ * Metrics beyond Spring Boot's defaults
+ * Boot already times every endpoint (http.server.requests) and the
+ * connection pool (hikaricp.*); this adds per-statement SQL timings
+ * Everything is served at /actuator/metrics and /actuator/prometheus
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Wraps the application's DataSource in an InstrumentedDataSource
+     * Only the one named dataSource, so the pools behind a replica routing
+     * DataSource are not counted twice
+     * Static, since post-processors are created before other beans
+     *
+     * @param metrics Statement timers, looked up on the first query
+     * @return The post-processor
+     */
+    @Bean
+    public static BeanPostProcessor instrumentDataSource(ObjectProvider<SqlMetrics> metrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (beanName.equals("dataSource") && bean instanceof DataSource dataSource
+                        && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource, metrics::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Caps how many distinct statements get their own timer
+     * SQL built from user input could otherwise grow the registry without end
+     *
+     * @param maxStatements Most statement tag values kept
+     * @return The meter filter
+     */
+    @Bean
+    public MeterFilter sqlStatementLimit(@Value("${theater.sql.max-statements:500}") int maxStatements) {
+        return MeterFilter.maximumAllowableTags(SqlMetrics.TIMER, "statement", maxStatements, MeterFilter.deny());
+    }
+}
@@ -0,0 +1,124 @@
+package com.creighton_theater.theater_database;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory trigram index over one text column, used for case-insensitive
+ * substring search when the database has no pg_trgm extension
+ * Each trigram maps to the sorted positions of the values containing it; a
+ * query intersects the lists for its own trigrams and then confirms each
+ * candidate with a plain contains() check
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+public class NgramIndex {
+
+    private static final int N = 3;
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final Object[] keys;
+    private final String[] values;
+    private final Map<String, int[]> postings;
+
+    /**
+     * Builds the index
+     *
+     * @param keys   Row keys, returned by search()
+     * @param values The column value for each key (same order, no nulls)
+     */
+    public NgramIndex(List<Object> keys, List<String> values) {
+        this.keys = keys.toArray();
+        this.values = new String[values.size()];
+
+        Map<String, List<Integer>> building = new HashMap<>();
+        for (int i = 0; i < this.values.length; i++) {
+            this.values[i] = values.get(i).toLowerCase(Locale.ROOT);
+            for (String gram : grams(this.values[i])) {
+                building.computeIfAbsent(gram, g -> new ArrayList<>()).add(i);
+            }
+        }
+
+        postings = new HashMap<>(building.size() * 2);
+        building.forEach((gram, rows) -> postings.put(gram,
+                rows.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * Finds the keys whose value contains the query, ignoring case
+     *
+     * @param query The substring to look for
+     * @return Matching keys in the order they were indexed
+     */
+    public List<Object> search(String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<Object> matches = new ArrayList<>();
+
+        // Too short to have a trigram - the index can't narrow it down
+        if (needle.length() < N) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i].contains(needle)) {
+                    matches.add(keys[i]);
+                }
+            }
+            return matches;
+        }
+
+        // Intersect starting from the rarest trigram so the working set stays small
+        int[][] lists = grams(needle).stream()
+                .map(gram -> postings.getOrDefault(gram, NO_MATCHES))
+                .sorted(Comparator.comparingInt(list -> list.length))
+                .toArray(int[][]::new);
+
+        int[] candidates = lists[0];
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists[i]);
+        }
+
+        for (int row : candidates) {
+            if (values[row].contains(needle)) {
+                matches.add(keys[row]);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Distinct trigrams of a lowercased value
+     */
+    private static Set<String> grams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + N <= value.length(); i++) {
+            grams.add(value.substring(i, i + N));
+        }
+        return grams;
+    }
+
+    /**
+     * Intersects two ascending position lists
+     */
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
@@ -1,7 +1,6 @@
 package com.creighton_theater.theater_database;
 
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -38,17 +37,25 @@ public class PageController {
     }
 
     @GetMapping("/student/{netID}/editPage")
+    @ReadsTables({"student"})
     public String populateEditStudentPage(@PathVariable("netID") String netID, Model model) {
-        String sql = "SELECT * FROM student WHERE netid = ?";
-        Map<String, Object> student = jdbcTemplate.queryForMap(sql, netID);
+        String sql = "SELECT " + Student.COLUMNS + " FROM student WHERE netid = ?";
+        Student student = jdbcTemplate.queryForObject(sql, Student.MAPPER, netID);
         model.addAttribute("student", student);
         return "student/editStudents";
     }
 
     @GetMapping("/student/{netID}/characters")
+    @ReadsTables({"characters", "student", "shows"})
     public String showPage(@PathVariable("netID") String netID, Model model) {
-        String sql = "SELECT * FROM characters WHERE netid = ?";
-        List<Map<String, Object>> character = jdbcTemplate.queryForList(sql, netID);
+        String sql = """
+                SELECT %s
+                FROM characters c
+                JOIN student s ON c.netid = s.netid
+                JOIN shows sh ON c.showid = sh.showid
+                WHERE c.netid = ?
+                """.formatted(CharacterRole.COLUMNS);
+        List<CharacterRole> character = jdbcTemplate.query(sql, CharacterRole.MAPPER, netID);
         model.addAttribute("roles", character);
         return "characters/character";
     }
@@ -91,42 +98,15 @@ public class PageController {
     }
 
     @GetMapping("/actor/editPage")
+    @ReadsTables({"actor", "student"})
     public String populateEditActorPage(@RequestParam("netID") String netID, Model model) {
         String sql = """
-                    SELECT
-                    s.firstname AS firstname,
-                    s.lastname AS lastname,
-                    a.netid AS netid,
-                    a.yearsactingexperience AS yearsactingexperience,
-                    a.skintone AS skintone,
-                    a.piercings AS piercings,
-                    a.haircolor AS haircolor,
-                    a.previousinjuries AS previousinjuries,
-                    a.specialnotes AS specialnotes,
-                    a.height AS height,
-                    a.ringsize AS ringsize,
-                    a.shoesize AS shoesize,
-                    a.headcirc AS headcirc,
-                    a.neckbase AS neckbase,
-                    a.chest AS chest,
-                    a.waist AS waist,
-                    a.highhip AS highhip,
-                    a.lowhip AS lowhip,
-                    a.armseyetoarmseyefront AS armseyetoarmseyefront,
-                    a.necktowaistfront AS necktowaistfront,
-                    a.armseyetoarmseyeback AS armseyetoarmseyeback,
-                    a.necktowaistback AS necktowaistback,
-                    a.centerbacktowrist AS centerbacktowrist,
-                    a.outsleevetowrist AS outsleevetowrist,
-                    a.outseambelowknee AS outseambelowknee,
-                    a.outseamtoankle AS outseamtoankle,
-                    a.outseamtofloor AS outseamtofloor,
-                    a.othernotes AS othernotes
+                SELECT %s
                 FROM actor a
                 JOIN student s ON a.netid = s.netid
                 WHERE a.netid = ?
-                """;
-        Map<String, Object> actor = jdbcTemplate.queryForMap(sql, netID);
+                """.formatted(Actor.COLUMNS);
+        Actor actor = jdbcTemplate.queryForObject(sql, Actor.MAPPER, netID);
         model.addAttribute("actor", actor);
         return "actor/editActor";
     }
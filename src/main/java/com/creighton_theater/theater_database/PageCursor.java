@@ -0,0 +1,99 @@
+package com.creighton_theater.theater_database;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Opaque continuation token for the keyset-paginated list endpoints
+ * The token holds the sort key of the last row on a page, so the next page
+ * resumes with a WHERE clause on the ORDER BY columns instead of an OFFSET
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+public final class PageCursor {
+
+    /** Response header carrying the token for the next page (absent on the last page) */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Unit separator - never typed into a name, netID or show field
+    private static final String SEPARATOR = "\u001F";
+
+    private PageCursor() {
+    }
+
+    /**
+     * Clamps a requested page size to the allowed range
+     *
+     * @param limit The requested page size (optional)
+     * @return Page size between 1 and MAX_PAGE_SIZE
+     */
+    public static int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Encodes the sort key values of a row into a URL-safe token
+     *
+     * @param keys The ORDER BY values of the last row on the page
+     * @return Opaque continuation token
+     */
+    public static String encode(Object... keys) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                joined.append(SEPARATOR);
+            }
+            joined.append(keys[i] == null ? "" : keys[i].toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joined.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token back into its sort key values
+     *
+     * @param token     The token from a previous response
+     * @param keyCount  Number of sort key values the endpoint expects
+     * @return The sort key values in ORDER BY order
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static String[] decode(String token, int keyCount) {
+        String joined = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] keys = joined.split(SEPARATOR, -1);
+        if (keys.length != keyCount) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        return keys;
+    }
+
+    /**
+     * Builds the response for one page
+     * Callers fetch pageSize + 1 rows; the extra row only signals that another
+     * page exists and is dropped from the body
+     *
+     * @param rows     Rows fetched with LIMIT pageSize + 1
+     * @param pageSize The page size requested
+     * @param sortKey  Extracts the ORDER BY values from a row
+     * @return 200 response with the page and, if more rows exist, the next cursor
+     */
+    public static <T> ResponseEntity<List<T>> page(List<T> rows, int pageSize, Function<T, Object[]> sortKey) {
+        if (rows.size() <= pageSize) {
+            return ResponseEntity.ok(rows);
+        }
+
+        List<T> page = rows.subList(0, pageSize);
+        String next = encode(sortKey.apply(page.get(pageSize - 1)));
+        return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, next).body(page);
+    }
+}
@@ -0,0 +1,154 @@
+package com.creighton_theater.theater_database;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Immutable sorted-array index for prefix (autocomplete) lookups
+ * Keys are lowercased and sorted once, so every key with a given prefix sits
+ * in one contiguous range found by binary search. Each entry also stores its
+ * rank in display order, and a sparse table over those ranks answers "which
+ * entry in this range comes first" in O(1), so the first k results of a
+ * range cost O(k log k) however wide the range is
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+public class PrefixIndex<T> {
+
+    private final String[] keys;
+    private final List<T> values;
+    private final int[] rank;
+
+    // minPos[j][i] = position of the lowest rank in keys[i .. i + 2^j)
+    private final int[][] minPos;
+
+    /**
+     * Builds the index
+     *
+     * @param items Items to index
+     * @param key   Extracts the text an item is looked up by (null = not indexed)
+     * @param order Order lookups return items in
+     */
+    public PrefixIndex(List<T> items, Function<T, String> key, Comparator<? super T> order) {
+        record Entry<E>(String key, E value, int rank) {
+        }
+
+        List<T> displayOrder = items.stream().filter(item -> key.apply(item) != null).sorted(order).toList();
+
+        List<Entry<T>> entries = new ArrayList<>(displayOrder.size());
+        for (int i = 0; i < displayOrder.size(); i++) {
+            T item = displayOrder.get(i);
+            entries.add(new Entry<>(key.apply(item).toLowerCase(Locale.ROOT), item, i));
+        }
+        entries.sort(Comparator.comparing(Entry::key));
+
+        int n = entries.size();
+        keys = new String[n];
+        rank = new int[n];
+        List<T> sortedValues = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            keys[i] = entries.get(i).key();
+            rank[i] = entries.get(i).rank();
+            sortedValues.add(entries.get(i).value());
+        }
+        values = List.copyOf(sortedValues);
+
+        int levels = n == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(n);
+        minPos = new int[levels][];
+        minPos[0] = new int[n];
+        for (int i = 0; i < n; i++) {
+            minPos[0][i] = i;
+        }
+        for (int j = 1; j < levels; j++) {
+            int half = 1 << (j - 1);
+            minPos[j] = new int[n - (1 << j) + 1];
+            for (int i = 0; i < minPos[j].length; i++) {
+                minPos[j][i] = lower(minPos[j - 1][i], minPos[j - 1][i + half]);
+            }
+        }
+    }
+
+    /**
+     * Finds items whose key starts with the prefix, ignoring case
+     *
+     * @param prefix The typed text
+     * @param limit  Maximum number of items to return
+     * @return Up to limit matching items, in display order
+     */
+    public List<T> startingWith(String prefix, int limit) {
+        String needle = prefix.toLowerCase(Locale.ROOT);
+        int from = firstAtLeast(needle);
+        int to = firstPast(needle, from);
+
+        // Each queued range is [start, end) with its best entry at pos;
+        // taking a range's best splits the rest of it in two
+        record Range(int start, int end, int pos) {
+        }
+        PriorityQueue<Range> ranges = new PriorityQueue<>(Comparator.comparingInt(r -> rank[r.pos()]));
+        if (from < to) {
+            ranges.add(new Range(from, to, minIn(from, to)));
+        }
+
+        List<T> matches = new ArrayList<>(Math.min(limit, to - from));
+        while (!ranges.isEmpty() && matches.size() < limit) {
+            Range best = ranges.poll();
+            matches.add(values.get(best.pos()));
+            if (best.start() < best.pos()) {
+                ranges.add(new Range(best.start(), best.pos(), minIn(best.start(), best.pos())));
+            }
+            if (best.pos() + 1 < best.end()) {
+                ranges.add(new Range(best.pos() + 1, best.end(), minIn(best.pos() + 1, best.end())));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Position of the lowest rank in keys[start .. end), end exclusive and > start
+     */
+    private int minIn(int start, int end) {
+        int level = 31 - Integer.numberOfLeadingZeros(end - start);
+        return lower(minPos[level][start], minPos[level][end - (1 << level)]);
+    }
+
+    private int lower(int a, int b) {
+        return rank[a] <= rank[b] ? a : b;
+    }
+
+    /**
+     * Position of the first key that is not less than the prefix
+     */
+    private int firstAtLeast(String prefix) {
+        int low = 0, high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Position of the first key at or after start that no longer has the prefix
+     */
+    private int firstPast(String prefix, int start) {
+        int low = start, high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
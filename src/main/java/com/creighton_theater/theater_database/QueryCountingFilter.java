@@ -0,0 +1,150 @@
+package com.creighton_theater.theater_database;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Counts the SQL statements behind each /shows/* and /student/* request
+ * The count and total database time are sent as a Server-Timing header,
+ * so the browser's network panel shows what each call cost, and recorded
+ * as theater.request.statements per endpoint. A statement shape that runs
+ * repeated-statement-threshold times or more in one request (typically a
+ * query per row of an earlier query, the N+1 pattern) is logged under
+ * theater.n-plus-one
+ * The header goes out with the first byte of the body, so for streamed
+ * responses it covers only the queries run before streaming starts
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class QueryCountingFilter extends OncePerRequestFilter {
+
+    private static final Logger N_PLUS_ONE = LoggerFactory.getLogger("theater.n-plus-one");
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${theater.sql.repeated-statement-threshold:5}")
+    private int repeatedThreshold;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !path.startsWith("/shows/") && !path.startsWith("/student/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueries queries = RequestQueries.open();
+        ServerTimingResponse timed = new ServerTimingResponse(response, queries);
+        try {
+            chain.doFilter(request, timed);
+        } finally {
+            RequestQueries.close();
+            // Responses without a body (304, 204) are committed after the chain
+            timed.addServerTiming();
+            report(request, queries);
+        }
+    }
+
+    private void report(HttpServletRequest request, RequestQueries queries) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("theater.request.statements")
+                .description("SQL statements run per HTTP request")
+                .baseUnit("statements")
+                .tag("uri", uri)
+                .register(registry)
+                .record(queries.statements());
+
+        List<RequestQueries.Repeated> repeated = queries.repeated(repeatedThreshold);
+        for (RequestQueries.Repeated statement : repeated) {
+            N_PLUS_ONE.warn("{} {} ran the same statement {} times ({} statements in total): {}",
+                    request.getMethod(), request.getRequestURI(), statement.count(), queries.statements(),
+                    statement.sql());
+        }
+    }
+
+    /**
+     * Adds the Server-Timing header just before the response is committed,
+     * once the handler's queries have run
+     */
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestQueries queries;
+        private boolean added;
+
+        ServerTimingResponse(HttpServletResponse response, RequestQueries queries) {
+            super(response);
+            this.queries = queries;
+        }
+
+        void addServerTiming() {
+            if (added || isCommitted()) {
+                return;
+            }
+            added = true;
+            int statements = queries.statements();
+            addHeader("Server-Timing", String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d statement%s\"",
+                    queries.nanos() / 1_000_000.0, statements, statements == 1 ? "" : "s"));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
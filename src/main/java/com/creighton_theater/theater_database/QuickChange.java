@@ -0,0 +1,39 @@
+package com.creighton_theater.theater_database;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A costume change an actor makes between two of their scenes
+ * quick means the scenes run back to back in the same act; seconds is the
+ * recorded change time (null if none could be read) and crewID the dresser
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record QuickChange(
+        String netID,
+        String characterName,
+        String fromScene,
+        String toScene,
+        Integer act,
+        boolean quick,
+        Integer seconds,
+        String crewID,
+        String changeLocation,
+        String costumeWorn,
+        boolean impossible,
+        String reason) {
+
+    /**
+     * Copy of this change marked impossible
+     *
+     * @param why The reason shown to the user
+     * @return The flagged change
+     */
+    public QuickChange flagged(String why) {
+        return new QuickChange(netID, characterName, fromScene, toScene, act, quick, seconds, crewID,
+                changeLocation, costumeWorn, true, impossible ? reason + "; " + why : why);
+    }
+}
@@ -0,0 +1,383 @@
+package com.creighton_theater.theater_database;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Finds the costume changes in a show and flags the ones that cannot work
+ * A show's scenes (in act, scene order) and its character_in_scene rows are
+ * loaded into parallel primitive arrays and sorted by actor and scene, so
+ * each actor's consecutive appearances sit next to each other. A change
+ * between two back-to-back scenes of the same act is a quick change; it is
+ * impossible when its recorded time exceeds the transition window or when
+ * its dresser has another quick change in the same transition
+ * Reports are cached per show. Edits to one actor's scene details recompute
+ * only that actor; anything that reorders scenes drops the show's report.
+ * Writes that can reach any show (shows, student, crew) drop every report
+ * through the write hook
+ * Loads and recomputes run under the show's own lock rather than inside the
+ * map, so one show's queries never hold up another's
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class QuickChangeAnalyzer {
+
+    private static final Pattern MINUTES_SECONDS = Pattern.compile("(\\d+):(\\d{1,2})");
+    private static final Pattern AMOUNT = Pattern.compile(
+            "(\\d+(?:\\.\\d+)?)\\s*(s|secs?|seconds?|m|mins?|minutes?)?\\.?", Pattern.CASE_INSENSITIVE);
+
+    // costumechange is free text; anything but these counts as a change
+    private static final Set<String> NO_CHANGE = Set.of("", "no", "n", "none", "false", "0", "-");
+
+    private static final int NO_ACT = Integer.MIN_VALUE;
+    private static final int UNKNOWN = -1;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    /** Longest change (seconds) that fits between back-to-back scenes */
+    @Value("${theater.quick-change.transition-seconds:60}")
+    private int transitionSeconds;
+
+    // Slots are never removed, so everyone locking a show locks the same one
+    private final Map<Integer, Slot> shows = new ConcurrentHashMap<>();
+
+    /**
+     * A show's lock and its state, null until loaded or after being dropped
+     */
+    private static final class Slot {
+        ShowState state;
+    }
+
+    /**
+     * One show's scene order and the changes found for each actor
+     * Only touched while holding the show's slot
+     */
+    private static final class ShowState {
+        final String[] sceneNames;
+        final int[] acts;
+        final Map<String, Integer> sceneIndex = new HashMap<>();
+        final Map<String, List<QuickChange>> byActor = new HashMap<>();
+        QuickChangeReport report;
+
+        ShowState(String[] sceneNames, int[] acts) {
+            this.sceneNames = sceneNames;
+            this.acts = acts;
+            for (int i = 0; i < sceneNames.length; i++) {
+                sceneIndex.put(sceneNames[i], i);
+            }
+        }
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        tableVersions.subscribe(tables -> forgetAll(), "shows", "student", "crew");
+    }
+
+    /**
+     * Costume changes and dresser load for a show, computed on first request
+     *
+     * @param showID The show ID
+     * @return The show's report (empty lists if it has no scenes)
+     */
+    public QuickChangeReport report(int showID) {
+        Slot slot = shows.computeIfAbsent(showID, id -> new Slot());
+        synchronized (slot) {
+            if (slot.state == null) {
+                slot.state = ReplicaRoutingDataSource.onPrimary(() -> load(showID));
+            }
+            return slot.state.report;
+        }
+    }
+
+    /**
+     * Recomputes one actor after their scene details in a show were added,
+     * edited or deleted
+     * A failed reload, or rows in a scene the cached order does not know,
+     * drops the show's report instead, so the write that triggered it is
+     * never reported as failed
+     *
+     * @param showID The show ID
+     * @param netID  The actor whose rows changed
+     */
+    public void actorChanged(int showID, String netID) {
+        Slot slot = shows.get(showID);
+        if (slot == null) {
+            return;
+        }
+        synchronized (slot) {
+            ShowState state = slot.state;
+            if (state == null) {
+                return;
+            }
+            try {
+                Rows rows = ReplicaRoutingDataSource.onPrimary(() -> loadRows(showID, netID));
+                if (!knowsScenes(state, rows)) {
+                    slot.state = null;
+                    return;
+                }
+                List<QuickChange> changes = changes(state, rows);
+                if (changes.isEmpty()) {
+                    state.byActor.remove(netID);
+                } else {
+                    state.byActor.put(netID, changes);
+                }
+                state.report = assemble(showID, state);
+            } catch (DataAccessException e) {
+                System.err.println("Error updating quick changes: " + e.getMessage());
+                slot.state = null;
+            }
+        }
+    }
+
+    /**
+     * Drops a show's report after its scenes, cast or many of its scene
+     * details changed
+     *
+     * @param showID The show ID
+     */
+    public void forget(int showID) {
+        Slot slot = shows.get(showID);
+        if (slot != null) {
+            synchronized (slot) {
+                slot.state = null;
+            }
+        }
+    }
+
+    /**
+     * Drops every report, for changes that can reach any show (a show or
+     * student being deleted, a netID or crewID changing)
+     */
+    public void forgetAll() {
+        shows.keySet().forEach(this::forget);
+    }
+
+    private ShowState load(int showID) {
+        List<String> names = new ArrayList<>();
+        List<Integer> acts = new ArrayList<>();
+        jdbcTemplate.query("SELECT scenename, act FROM scene WHERE showid = ? ORDER BY act, scenename", rs -> {
+            names.add(rs.getString(1));
+            Integer act = rs.getObject(2, Integer.class);
+            acts.add(act == null ? NO_ACT : act);
+        }, showID);
+
+        ShowState state = new ShowState(names.toArray(String[]::new),
+                acts.stream().mapToInt(Integer::intValue).toArray());
+
+        for (QuickChange change : changes(state, loadRows(showID, null))) {
+            state.byActor.computeIfAbsent(change.netID(), k -> new ArrayList<>()).add(change);
+        }
+        state.report = assemble(showID, state);
+        return state;
+    }
+
+    /**
+     * A show's character_in_scene rows as parallel arrays
+     */
+    private static final class Rows {
+        int size;
+        String[] netID, character, scene, change, worn, location, crew;
+        int[] seconds;
+
+        Rows(int capacity) {
+            netID = new String[capacity];
+            character = new String[capacity];
+            change = new String[capacity];
+            worn = new String[capacity];
+            location = new String[capacity];
+            crew = new String[capacity];
+            scene = new String[capacity];
+            seconds = new int[capacity];
+        }
+    }
+
+    private Rows loadRows(int showID, String netID) {
+        String sql = """
+                SELECT netid, charactername, scenename, costumechange, costumeworn,
+                       changelocation, changelengthoftime, crewid
+                FROM character_in_scene
+                WHERE showid = ?
+                """ + (netID == null ? "" : "AND netid = ?");
+        Object[] args = netID == null ? new Object[] { showID } : new Object[] { showID, netID };
+
+        List<String[]> raw = jdbcTemplate.query(sql, (rs, rowNum) -> new String[] {
+                rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8) }, args);
+
+        Rows rows = new Rows(raw.size());
+        for (String[] r : raw) {
+            int i = rows.size++;
+            rows.netID[i] = r[0];
+            rows.character[i] = r[1];
+            rows.scene[i] = r[2];
+            rows.change[i] = r[3];
+            rows.worn[i] = r[4];
+            rows.location[i] = r[5];
+            rows.seconds[i] = seconds(r[6]);
+            rows.crew[i] = r[7];
+        }
+        return rows;
+    }
+
+    private static boolean knowsScenes(ShowState state, Rows rows) {
+        for (int i = 0; i < rows.size; i++) {
+            if (!state.sceneIndex.containsKey(rows.scene[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Walks each actor's appearances in running order and records the
+     * changes between consecutive ones (dresser clashes are added later)
+     * Rows in a scene missing from the state's order are skipped; that can
+     * only be a scene added after the order was read, and adding it drops
+     * the show's report
+     */
+    private List<QuickChange> changes(ShowState state, Rows rows) {
+        // Intern actors so rows can be sorted on a packed (actor, scene, row) key
+        Map<String, Integer> actorIds = new HashMap<>();
+        int scenes = Math.max(state.sceneNames.length, 1);
+        long[] order = new long[rows.size];
+        int[] sceneOf = new int[rows.size];
+        int known = 0;
+        for (int i = 0; i < rows.size; i++) {
+            Integer scene = state.sceneIndex.get(rows.scene[i]);
+            if (scene == null) {
+                continue;
+            }
+            int actor = actorIds.computeIfAbsent(rows.netID[i], k -> actorIds.size());
+            sceneOf[i] = scene;
+            order[known++] = ((long) actor * scenes + sceneOf[i]) << 24 | i;
+        }
+        order = Arrays.copyOf(order, known);
+        Arrays.sort(order);
+
+        List<QuickChange> changes = new ArrayList<>();
+        for (int k = 1; k < order.length; k++) {
+            int prev = (int) (order[k - 1] & 0xFFFFFF);
+            int cur = (int) (order[k] & 0xFFFFFF);
+            if (!rows.netID[prev].equals(rows.netID[cur]) || sceneOf[prev] == sceneOf[cur]) {
+                continue;
+            }
+
+            boolean changed = !NO_CHANGE.contains(normalize(rows.change[cur]))
+                    || (!normalize(rows.worn[prev]).isEmpty() && !normalize(rows.worn[cur]).isEmpty()
+                            && !normalize(rows.worn[prev]).equals(normalize(rows.worn[cur])));
+            if (!changed) {
+                continue;
+            }
+
+            int act = state.acts[sceneOf[cur]];
+            boolean quick = sceneOf[cur] == sceneOf[prev] + 1 && act == state.acts[sceneOf[prev]];
+            int secs = rows.seconds[cur];
+
+            boolean impossible = quick && secs != UNKNOWN && secs > transitionSeconds;
+            String reason = null;
+            if (impossible) {
+                reason = "Needs " + secs + "s but only " + transitionSeconds + "s between scenes";
+            } else if (quick && secs == UNKNOWN) {
+                reason = "No change time recorded";
+            }
+
+            changes.add(new QuickChange(rows.netID[cur], rows.character[cur],
+                    state.sceneNames[sceneOf[prev]], state.sceneNames[sceneOf[cur]],
+                    act == NO_ACT ? null : act, quick, secs == UNKNOWN ? null : secs,
+                    rows.crew[cur], rows.location[cur], rows.worn[cur], impossible, reason));
+        }
+        return changes;
+    }
+
+    /**
+     * Combines every actor's changes into running order and works out the
+     * dresser load, flagging dressers with two quick changes at once
+     */
+    private QuickChangeReport assemble(int showID, ShowState state) {
+        List<QuickChange> all = new ArrayList<>();
+        state.byActor.values().forEach(all::addAll);
+        all.sort(Comparator.<QuickChange>comparingInt(c -> state.sceneIndex.get(c.toScene()))
+                .thenComparing(QuickChange::netID));
+
+        // crewID -> toScene -> quick changes in that transition
+        Map<String, Map<String, Integer>> quickByDresser = new HashMap<>();
+        for (QuickChange change : all) {
+            if (change.quick() && change.crewID() != null) {
+                quickByDresser.computeIfAbsent(change.crewID(), k -> new HashMap<>())
+                        .merge(change.toScene(), 1, Integer::sum);
+            }
+        }
+
+        Map<String, int[]> load = new TreeMap<>();
+        for (int i = 0; i < all.size(); i++) {
+            QuickChange change = all.get(i);
+            if (change.crewID() == null) {
+                continue;
+            }
+            int[] counts = load.computeIfAbsent(change.crewID(), k -> new int[3]);
+            counts[0]++;
+            if (change.quick()) {
+                counts[1]++;
+                int clashing = quickByDresser.get(change.crewID()).get(change.toScene());
+                if (clashing > 1) {
+                    all.set(i, change.flagged("Dresser " + change.crewID() + " has " + clashing
+                            + " quick changes into this scene"));
+                }
+            }
+        }
+        quickByDresser.forEach((crewID, transitions) -> load.get(crewID)[2] = (int) transitions.values()
+                .stream().filter(count -> count > 1).count());
+
+        List<DresserLoad> dressers = new ArrayList<>();
+        load.forEach((crewID, counts) -> dressers.add(new DresserLoad(crewID, counts[0], counts[1], counts[2])));
+        return new QuickChangeReport(showID, transitionSeconds, List.copyOf(all), List.copyOf(dressers));
+    }
+
+    /**
+     * Reads a change time such as "45", "45s", "1:30" or "2 min" as seconds
+     *
+     * @return The time in seconds, or UNKNOWN
+     */
+    static int seconds(String text) {
+        String value = normalize(text);
+        Matcher clock = MINUTES_SECONDS.matcher(value);
+        if (clock.matches()) {
+            return Integer.parseInt(clock.group(1)) * 60 + Integer.parseInt(clock.group(2));
+        }
+        Matcher amount = AMOUNT.matcher(value);
+        if (amount.matches()) {
+            double number = Double.parseDouble(amount.group(1));
+            boolean minutes = amount.group(2) != null && amount.group(2).startsWith("m");
+            return (int) Math.round(minutes ? number * 60 : number);
+        }
+        return UNKNOWN;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,21 @@
+package com.creighton_theater.theater_database;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Every costume change in a show, in running order, and the load on each
+ * dresser
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record QuickChangeReport(
+        int showID,
+        int transitionSeconds,
+        List<QuickChange> changes,
+        List<DresserLoad> dressers) {
+}
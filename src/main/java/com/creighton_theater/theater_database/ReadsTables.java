@@ -0,0 +1,26 @@
+package com.creighton_theater.theater_database;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET endpoint whose response depends only on the listed tables
+ * ETagInterceptor tags the response with their versions and answers a
+ * matching If-None-Match with 304 Not Modified before the handler runs
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadsTables {
+
+    /**
+     * Lowercase names of every table the endpoint reads
+     */
+    String[] value();
+}
@@ -0,0 +1,89 @@
+package com.creighton_theater.theater_database;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Primary and read replica connection pools, used when
+ * theater.replica.datasource.jdbc-url is set
+ * The primary is configured by spring.datasource.* as before; the replica
+ * pool by theater.replica.datasource.* (any HikariCP setting, e.g.
+ * maximum-pool-size). Without a replica URL Spring Boot's single pool is
+ * used and nothing here is created
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Configuration
+@ConditionalOnProperty("theater.replica.datasource.jdbc-url")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * The pool for writes, and for reads right after one
+     *
+     * @param properties spring.datasource.* settings
+     * @return The primary pool
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    /**
+     * The pool for @GetMapping handlers
+     *
+     * @return The replica pool
+     */
+    @Bean
+    @ConfigurationProperties("theater.replica.datasource")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    /**
+     * The DataSource everything else uses
+     *
+     * @param primaryDataSource The primary pool
+     * @param replicaDataSource The replica pool
+     * @return Connections routed per request
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource));
+    }
+
+    /**
+     * Runs schema.sql on the replica too, under the same spring.sql.init.*
+     * settings as the primary; only useful when both are local databases
+     *
+     * @param replicaDataSource The replica pool
+     * @param properties        spring.sql.init.* settings
+     * @return The initializer
+     */
+    @Bean
+    public DataSourceScriptDatabaseInitializer replicaDataSourceInitializer(HikariDataSource replicaDataSource,
+            SqlInitializationProperties properties) {
+        return new DataSourceScriptDatabaseInitializer(replicaDataSource,
+                SqlDataSourceScriptDatabaseInitializer.getSettings(properties));
+    }
+}
@@ -0,0 +1,115 @@
+package com.creighton_theater.theater_database;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends each connection to the primary database or the read replica
+ * ReplicaRoutingInterceptor picks the route for each request; anything
+ * without one (startup, imports, background work) uses the primary. A
+ * read-write transaction always uses the primary, even in a read request,
+ * and so do loads into state shared across requests (see onPrimary)
+ * Must be wrapped in a LazyConnectionDataSourceProxy, so the route is
+ * decided at the first statement, once the transaction has started, rather
+ * than when the transaction manager asks for a connection
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+public final class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Route> ROUTE = new ThreadLocal<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Sets the route for connections opened on this thread
+     *
+     * @param route The database to use, or null to go back to the primary
+     */
+    static void use(Route route) {
+        if (route == null) {
+            ROUTE.remove();
+        } else {
+            ROUTE.set(route);
+        }
+    }
+
+    /**
+     * @return The route set on this thread, or null if none
+     */
+    static Route current() {
+        return ROUTE.get();
+    }
+
+    /**
+     * Runs work on the primary whatever this thread's route is
+     * For loads into state shared across requests (the query cache, the
+     * in-memory indexes): filled from a replica that has not caught up with
+     * a write yet, they would hand the old rows to every client, including
+     * the one that wrote, until the next write
+     * Inside a transaction, the connection it already holds is used
+     *
+     * @param work The load
+     * @return Its result
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Route previous = ROUTE.get();
+        use(Route.PRIMARY);
+        try {
+            return work.get();
+        } finally {
+            use(previous);
+        }
+    }
+
+    /**
+     * Makes a task use the calling thread's route when it runs on another
+     * thread
+     *
+     * @param task The task
+     * @return The task, wrapped if a route is set
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        Route route = ROUTE.get();
+        if (route == null) {
+            return task;
+        }
+        return () -> {
+            Route previous = ROUTE.get();
+            use(route);
+            try {
+                return task.call();
+            } finally {
+                use(previous);
+            }
+        };
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (ROUTE.get() != Route.REPLICA) {
+            return Route.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
@@ -0,0 +1,125 @@
+package com.creighton_theater.theater_database;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Routes @GetMapping handlers to the read replica and everything else to
+ * the primary
+ * After a write, the browser that wrote gets a cookie that sends its reads
+ * back to the primary for the stickiness window, so it sees its own changes
+ * while the replica catches up (this also works across app instances)
+ * Everyone else keeps reading the replica. State shared across requests is
+ * loaded from the primary regardless (ReplicaRoutingDataSource.onPrimary),
+ * and ETagInterceptor leaves tables written within the window untagged, so
+ * a lagging replica's rows are never cached under the new versions
+ * Streamed responses keep the route on the async thread that writes them
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+@ConditionalOnProperty("theater.replica.datasource.jdbc-url")
+public class ReplicaRoutingInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    static final String COOKIE = "theater-primary";
+
+    private static final String ROUTE_ATTRIBUTE = ReplicaRoutingInterceptor.class.getName() + ".route";
+
+    @Value("${theater.replica.stickiness:5s}")
+    private Duration stickiness;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        if (isWrite(request)) {
+            // Before the handler runs, since the response may be committed after
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, "1")
+                    .maxAge(Duration.ofSeconds(Math.max(1, stickiness.toSeconds())))
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build()
+                    .toString());
+            ReplicaRoutingDataSource.use(ReplicaRoutingDataSource.Route.PRIMARY);
+            return true;
+        }
+
+        boolean read = handler instanceof HandlerMethod method && method.hasMethodAnnotation(GetMapping.class);
+        boolean sticky = WebUtils.getCookie(request, COOKIE) != null;
+        ReplicaRoutingDataSource.use(read && !sticky
+                ? ReplicaRoutingDataSource.Route.REPLICA
+                : ReplicaRoutingDataSource.Route.PRIMARY);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        ReplicaRoutingDataSource.use(null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        ReplicaRoutingDataSource.use(null);
+    }
+
+    /**
+     * Whether the replica may not have caught up with a write to any of the
+     * given tables yet
+     *
+     * @param tables Lowercase table names
+     * @return True if any of them changed within the stickiness window
+     */
+    public boolean catchingUp(String... tables) {
+        return tableVersions.changedWithin(stickiness, tables);
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        request.setAttribute(ROUTE_ATTRIBUTE, ReplicaRoutingDataSource.current(), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        Object route = request.getAttribute(ROUTE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        ReplicaRoutingDataSource.use((ReplicaRoutingDataSource.Route) route);
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        ReplicaRoutingDataSource.use(null);
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS", "TRACE" -> false;
+            default -> true;
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.creighton_theater.theater_database;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The SQL statements one HTTP request ran: how many, how long they took
+ * together, and how often each statement shape repeated
+ * QueryCountingFilter opens one per request on the request thread;
+ * SqlMetrics adds every statement to the one open on the current thread.
+ * Work handed to other threads must be wrapped with propagate() to count
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+public final class RequestQueries {
+
+    private static final ThreadLocal<RequestQueries> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+
+    // Normalized statement -> times run; written from the profile's worker threads too
+    private final Map<String, AtomicInteger> shapes = new ConcurrentHashMap<>();
+
+    /**
+     * A statement shape that ran more than once in the same request
+     */
+    public record Repeated(String sql, int count) {
+    }
+
+    /**
+     * Starts counting on the current thread
+     *
+     * @return The new log, to pass to close()
+     */
+    static RequestQueries open() {
+        RequestQueries queries = new RequestQueries();
+        CURRENT.set(queries);
+        return queries;
+    }
+
+    /**
+     * Stops counting on the current thread
+     */
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return The log for the request on this thread, or null outside a counted request
+     */
+    static RequestQueries current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes a task count toward the calling thread's request when it runs
+     * on another thread
+     *
+     * @param task The task
+     * @return The task, wrapped if a request is being counted
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        RequestQueries queries = CURRENT.get();
+        if (queries == null) {
+            return task;
+        }
+        return () -> {
+            RequestQueries previous = CURRENT.get();
+            CURRENT.set(queries);
+            try {
+                return task.call();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Adds one executed statement
+     *
+     * @param sql   The normalized statement
+     * @param nanos How long it took
+     */
+    void record(String sql, long nanos) {
+        statements.incrementAndGet();
+        this.nanos.addAndGet(nanos);
+        shapes.computeIfAbsent(sql, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public int statements() {
+        return statements.get();
+    }
+
+    /**
+     * @return Total database time, summed over every statement even when
+     *         they ran concurrently
+     */
+    public long nanos() {
+        return nanos.get();
+    }
+
+    /**
+     * @param threshold Fewest runs that count as repeated
+     * @return The shapes run at least threshold times, most repeated first
+     */
+    public List<Repeated> repeated(int threshold) {
+        return shapes.entrySet().stream()
+                .filter(entry -> entry.getValue().get() >= threshold)
+                .map(entry -> new Repeated(entry.getKey(), entry.getValue().get()))
+                .sorted((a, b) -> Integer.compare(b.count(), a.count()))
+                .toList();
+    }
+}
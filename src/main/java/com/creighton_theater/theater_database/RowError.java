@@ -0,0 +1,15 @@
+package com.creighton_theater.theater_database;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Why one row of a bulk request was rejected
+ * row is the zero-based position of the row in the request
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record RowError(int row, String message) {
+}
@@ -0,0 +1,42 @@
+package com.creighton_theater.theater_database;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A scene of a show, with the show's name and semester for page titles
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record Scene(
+        String showName,
+        String yearSemester,
+        String sceneName,
+        Integer act,
+        String locationSet,
+        String song,
+        String bookScriptPages,
+        String crewInShow,
+        int showID) {
+
+    /** Select list read by MAPPER, in component order (sc = scene, s = shows) */
+    public static final String COLUMNS = """
+            s.showname, s.yearsemester, sc.scenename, sc.act, sc.locationset,
+            sc.song, sc.bookscriptpages, sc.crewinshow, sc.showid""";
+
+    /** Maps a row selected with COLUMNS by column position */
+    public static final RowMapper<Scene> MAPPER = (rs, rowNum) -> new Scene(
+            rs.getString(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getObject(4, Integer.class),
+            rs.getString(5),
+            rs.getString(6),
+            rs.getString(7),
+            rs.getString(8),
+            rs.getInt(9));
+}
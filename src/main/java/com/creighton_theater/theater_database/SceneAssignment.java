@@ -0,0 +1,24 @@
+package com.creighton_theater.theater_database;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * One character_in_scene row in a bulk assignment request
+ * Field names match the addSceneDetails form parameters
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record SceneAssignment(
+        String sceneName,
+        String characterName,
+        String netID,
+        String costumeChange,
+        String costumeWorn,
+        String characterLocation,
+        String changeLocation,
+        String changeTime,
+        String notes) {
+}
@@ -0,0 +1,47 @@
+package com.creighton_theater.theater_database;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A character's appearance in a scene, with costume and change details
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record SceneDetail(
+        String characterName,
+        String actorName,
+        String costumeChange,
+        String costumeWorn,
+        String characterLocation,
+        String changeLocation,
+        String changeTime,
+        String notes,
+        String sceneName,
+        String netID,
+        int showID) {
+
+    /** Select list read by MAPPER, in component order (cs = character_in_scene, st = student) */
+    public static final String COLUMNS = """
+            cs.charactername, st.firstname || ' ' || st.lastname, cs.costumechange,
+            cs.costumeworn, cs.characterlocation, cs.changelocation, cs.changelengthoftime,
+            cs.additionalnotes, cs.scenename, cs.netid, cs.showid""";
+
+    /** Maps a row selected with COLUMNS by column position */
+    public static final RowMapper<SceneDetail> MAPPER = (rs, rowNum) -> new SceneDetail(
+            rs.getString(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getString(6),
+            rs.getString(7),
+            rs.getString(8),
+            rs.getString(9),
+            rs.getString(10),
+            rs.getInt(11));
+}
@@ -0,0 +1,34 @@
+package com.creighton_theater.theater_database;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A row of the shows table
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record Show(
+        int showID,
+        String showName,
+        String yearSemester,
+        String genre,
+        String director,
+        String playwright) {
+
+    /** Select list read by MAPPER, in component order */
+    public static final String COLUMNS = "showid, showname, yearsemester, genre, director, playwright";
+
+    /** Maps a row selected with COLUMNS by column position */
+    public static final RowMapper<Show> MAPPER = (rs, rowNum) -> new Show(
+            rs.getInt(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getString(6));
+}
@@ -0,0 +1,34 @@
+package com.creighton_theater.theater_database;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A crew member's assignment to a show
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record ShowCrewMember(
+        String showName,
+        String yearSemester,
+        String firstName,
+        String lastName,
+        String roles,
+        String crewID) {
+
+    /** Select list read by MAPPER, in component order (s = shows, st = student, cs = crew_in_show) */
+    public static final String COLUMNS = "s.showname, s.yearsemester, st.firstname, st.lastname, cs.roles, cs.crewid";
+
+    /** Maps a row selected with COLUMNS by column position */
+    public static final RowMapper<ShowCrewMember> MAPPER = (rs, rowNum) -> new ShowCrewMember(
+            rs.getString(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getString(6));
+}
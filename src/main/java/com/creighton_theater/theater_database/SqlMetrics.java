@@ -0,0 +1,125 @@
+package com.creighton_theater.theater_database;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every SQL statement the application runs, per distinct statement
+ * Statements are recorded by InstrumentedDataSource as the "theater.sql"
+ * timer, tagged with the statement's normalized text (whitespace collapsed,
+ * literals replaced by ?, IN and VALUES lists shortened) and its outcome
+ * Statements slower than theater.sql.slow-query-threshold are also written
+ * to the theater.slow-queries log. Bind parameter values are never logged,
+ * only how many there were. Each statement is also added to the current
+ * request's RequestQueries, if there is one
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class SqlMetrics {
+
+    public static final String TIMER = "theater.sql";
+
+    private static final Logger SLOW_QUERIES = LoggerFactory.getLogger("theater.slow-queries");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern COMMA = Pattern.compile(" ?, ?");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\?(?:, \\?)+\\)");
+    private static final Pattern VALUES_ROWS = Pattern.compile("(\\(\\?(?:, \\?)*\\))(?:, \\(\\?(?:, \\?)*\\))+");
+
+    // Longest statement text kept as a tag value
+    private static final int MAX_STATEMENT_LENGTH = 500;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${theater.sql.slow-query-threshold:250ms}")
+    private Duration slowQueryThreshold;
+
+    /**
+     * A statement's normalized text and success timer, looked up by its raw
+     * SQL so it is only normalized once
+     * The error timer is registered on the first failure
+     */
+    private record Statement(String sql, Timer succeeded) {
+    }
+
+    private final Cache<String, Statement> statements = Caffeine.newBuilder()
+            .maximumSize(2_000)
+            .build();
+
+    /**
+     * Records one execution of a statement
+     *
+     * @param sql        The SQL as sent to the driver
+     * @param nanos      How long the execute call took
+     * @param parameters How many bind parameters were set
+     * @param failed     Whether it threw
+     */
+    public void record(String sql, long nanos, int parameters, boolean failed) {
+        Statement statement = statements.get(sql == null ? "" : sql, this::register);
+        Timer timer = failed ? timer(statement.sql(), "error") : statement.succeeded();
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+
+        RequestQueries request = RequestQueries.current();
+        if (request != null) {
+            request.record(statement.sql(), nanos);
+        }
+
+        if (nanos >= slowQueryThreshold.toNanos()) {
+            SLOW_QUERIES.warn("Slow SQL ({} ms{}, {} bind parameter{} redacted): {}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), failed ? ", failed" : "",
+                    parameters, parameters == 1 ? "" : "s", statement.sql());
+        }
+    }
+
+    private Statement register(String sql) {
+        String normalized = normalize(sql);
+        return new Statement(normalized, timer(normalized, "success"));
+    }
+
+    private Timer timer(String statement, String outcome) {
+        return Timer.builder(TIMER)
+                .description("SQL statement execution time")
+                .tag("statement", statement)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Reduces SQL to the shape of the statement: no literal values, and the
+     * same text however many items an IN list or VALUES clause has
+     *
+     * @param sql The SQL as sent to the driver
+     * @return The normalized statement
+     */
+    static String normalize(String sql) {
+        String normalized = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = normalized.replace("( ", "(").replace(" )", ")");
+        normalized = COMMA.matcher(normalized).replaceAll(", ");
+        normalized = VALUES_ROWS.matcher(normalized).replaceAll("$1, ...");
+        normalized = PARAMETER_LIST.matcher(normalized).replaceAll("(?, ...)");
+        if (normalized.length() > MAX_STATEMENT_LENGTH) {
+            normalized = normalized.substring(0, MAX_STATEMENT_LENGTH) + "...";
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,43 @@
+package com.creighton_theater.theater_database;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A row of the student table
+ * Serialized with lowercase keys (netid, firstname, ...) to match the
+ * column names the front end already reads
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record Student(
+        String netID,
+        String firstName,
+        String lastName,
+        String gradeLevel,
+        String pronouns,
+        String specialNotes,
+        String email,
+        @JsonProperty("allergies_sensitivities") String allergiesSensitivities) {
+
+    /** Select list read by MAPPER, in component order */
+    public static final String COLUMNS = """
+            netid, firstname, lastname, gradelevel, pronouns,
+            specialnotes, email, allergies_sensitivities""";
+
+    /** Maps a row selected with COLUMNS by column position */
+    public static final RowMapper<Student> MAPPER = (rs, rowNum) -> new Student(
+            rs.getString(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getString(6),
+            rs.getString(7),
+            rs.getString(8));
+}
@@ -0,0 +1,26 @@
+package com.creighton_theater.theater_database;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Everything recorded about one student, for /student/{netID}/profile
+ * actor and crew are null when the student has no such profile. incomplete
+ * names the parts that missed the deadline or failed; those parts are null
+ * or empty rather than missing from the document
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record StudentProfile(
+        Student student,
+        Actor actor,
+        Crew crew,
+        List<CharacterRole> characters,
+        List<ShowCrewMember> crewShows,
+        List<Show> previousShows,
+        List<String> incomplete) {
+}
@@ -0,0 +1,265 @@
+package com.creighton_theater.theater_database;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Loads a student's whole profile with one query per table, all at once
+ * Each query runs on its own virtual thread and the call waits for all of
+ * them up to a single deadline, so it takes as long as the slowest query
+ * rather than the sum. At most max-parallel-queries run at the same time,
+ * which is also how many connections AdmissionControlFilter admits a
+ * profile request with. Queries still running at the deadline are reported
+ * as incomplete and cancelled with Statement.cancel(), which the driver
+ * sends out of band and which leaves the connection intact (interrupting a
+ * thread blocked on the driver's socket would close it instead). The call
+ * then waits for them to hand their connections back, so the request's
+ * permits are never released while its queries still hold connections; the
+ * JDBC query timeout is the backstop if a cancel is lost. Queries still
+ * waiting for a slot at the deadline never start
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class StudentProfileLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration deadline;
+    private final int maxParallelQueries;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    // The part the current worker thread is running, for applyStatementSettings
+    private static final ThreadLocal<Running> RUNNING = new ThreadLocal<>();
+
+    /**
+     * A plain (uncached) JdbcTemplate whose statements time out with the
+     * deadline; profile parts are each read once per request anyway
+     *
+     * @param dataSource         The connection pool
+     * @param deadline           Longest time a profile may take
+     * @param maxParallelQueries Most queries (and connections) in use at once
+     */
+    public StudentProfileLoader(DataSource dataSource,
+            @Value("${theater.profile.deadline:2s}") Duration deadline,
+            @Value("${theater.profile.max-parallel-queries:3}") int maxParallelQueries) {
+        this.deadline = deadline;
+        this.maxParallelQueries = Math.max(1, maxParallelQueries);
+        this.jdbcTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            protected void applyStatementSettings(Statement statement) throws SQLException {
+                super.applyStatementSettings(statement);
+                Running running = RUNNING.get();
+                if (running != null) {
+                    running.started(statement);
+                }
+            }
+        };
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, (deadline.toMillis() + 999) / 1000));
+    }
+
+    @PreDestroy
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Runs every profile query concurrently
+     *
+     * @param netID The student's netID
+     * @return The profile, or null if there is no such student
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     * @throws ProfileTimeoutException If the student row itself could not be read in time
+     */
+    public StudentProfile load(String netID) throws InterruptedException {
+        List<String> parts = List.of("student", "actor", "crew", "characters", "crew_in_show", "previous_roles");
+        long until = System.nanoTime() + deadline.toNanos();
+        Semaphore slots = new Semaphore(maxParallelQueries);
+        List<Running> running = parts.stream().map(part -> new Running()).toList();
+        List<Callable<Object>> calls = Stream.<Callable<Object>>of(
+                () -> jdbcTemplate.query("SELECT " + Student.COLUMNS + " FROM student WHERE netid = ?",
+                        Student.MAPPER, netID),
+                () -> jdbcTemplate.query("""
+                        SELECT %s
+                        FROM actor a
+                        JOIN student s ON a.netid = s.netid
+                        WHERE a.netid = ?
+                        """.formatted(Actor.COLUMNS), Actor.MAPPER, netID),
+                () -> jdbcTemplate.query("""
+                        SELECT %s
+                        FROM crew c
+                        JOIN student s ON c.crewid = s.netid
+                        WHERE c.crewid = ?
+                        """.formatted(Crew.COLUMNS), Crew.MAPPER, netID),
+                () -> jdbcTemplate.query("""
+                        SELECT %s
+                        FROM characters c
+                        JOIN student s ON c.netid = s.netid
+                        JOIN shows sh ON c.showid = sh.showid
+                        WHERE c.netid = ?
+                        ORDER BY sh.yearsemester DESC, sh.showname, c.charactername
+                        """.formatted(CharacterRole.COLUMNS), CharacterRole.MAPPER, netID),
+                () -> jdbcTemplate.query("""
+                        SELECT %s
+                        FROM crew_in_show cs
+                        JOIN shows s ON cs.showid = s.showid
+                        JOIN student st ON st.netid = cs.crewid
+                        WHERE cs.crewid = ?
+                        ORDER BY s.yearsemester DESC, s.showname
+                        """.formatted(ShowCrewMember.COLUMNS), ShowCrewMember.MAPPER, netID),
+                () -> jdbcTemplate.query("""
+                        SELECT %s
+                        FROM shows
+                        WHERE showid IN (SELECT showid FROM previous_roles WHERE netid = ?)
+                        ORDER BY yearsemester DESC, showname
+                        """.formatted(Show.COLUMNS), Show.MAPPER, netID))
+                .toList();
+        List<Callable<Object>> queries = IntStream.range(0, calls.size())
+                .mapToObj(i -> limited(calls.get(i), slots, until, running.get(i)))
+                // So they count toward the request and use its database
+                .map(RequestQueries::propagate)
+                .map(ReplicaRoutingDataSource::propagate)
+                .toList();
+
+        List<Future<Object>> futures = queries.stream().map(workers::submit).toList();
+
+        List<String> incomplete = new ArrayList<>();
+        List<List<?>> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add((List<?>) futures.get(i).get(Math.max(0, until - System.nanoTime()),
+                        TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                running.get(i).cancel();
+                incomplete.add(parts.get(i));
+                results.add(List.of());
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof TimeoutException)) {
+                    System.err.println("Error loading " + parts.get(i) + " for profile: "
+                            + e.getCause().getMessage());
+                }
+                incomplete.add(parts.get(i));
+                results.add(List.of());
+            }
+        }
+
+        // Cancelled queries return their connections before the response goes
+        for (Future<Object> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // Already counted as incomplete
+            }
+        }
+
+        if (incomplete.contains("student")) {
+            throw new ProfileTimeoutException("Could not load student " + netID + " within " + deadline);
+        }
+        if (results.get(0).isEmpty()) {
+            return null;
+        }
+
+        return new StudentProfile(
+                (Student) results.get(0).get(0),
+                (Actor) first(results.get(1)),
+                (Crew) first(results.get(2)),
+                cast(results.get(3)),
+                cast(results.get(4)),
+                cast(results.get(5)),
+                incomplete);
+    }
+
+    /**
+     * Thrown when the part of a profile everything else hangs off is missing
+     */
+    public static class ProfileTimeoutException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public ProfileTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * The statement one profile part is running, so the waiting thread can
+     * cancel it at the deadline
+     */
+    private static final class Running {
+        private Statement statement;
+        private boolean cancelled;
+
+        synchronized void started(Statement statement) throws SQLException {
+            if (cancelled) {
+                throw new SQLTimeoutException("Cancelled at the profile deadline");
+            }
+            this.statement = statement;
+        }
+
+        synchronized void finished() {
+            statement = null;
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (statement != null) {
+                try {
+                    statement.cancel();
+                } catch (SQLException e) {
+                    System.err.println("Error cancelling profile query: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a query only once one of the slots is free, and not at all if
+     * none frees up before the deadline
+     */
+    private static Callable<Object> limited(Callable<Object> query, Semaphore slots, long until,
+            Running running) {
+        return () -> {
+            if (!slots.tryAcquire(until - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException("No free slot before the deadline");
+            }
+            RUNNING.set(running);
+            try {
+                return query.call();
+            } finally {
+                running.finished();
+                RUNNING.remove();
+                slots.release();
+            }
+        };
+    }
+
+    private static Object first(List<?> rows) {
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> cast(List<?> rows) {
+        return (List<T>) rows;
+    }
+}
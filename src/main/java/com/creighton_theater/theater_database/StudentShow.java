@@ -0,0 +1,35 @@
+package com.creighton_theater.theater_database;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A show a student has acted in, with the characters they played
+ * (comma-separated)
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record StudentShow(
+        int showID,
+        String showName,
+        String yearSemester,
+        String genre,
+        String playwright,
+        String characters) {
+
+    /**
+     * Maps a row of /student/getShows by column position
+     * (showid, showname, yearsemester, genre, playwright, characters)
+     */
+    public static final RowMapper<StudentShow> MAPPER = (rs, rowNum) -> new StudentShow(
+            rs.getInt(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getString(6));
+}
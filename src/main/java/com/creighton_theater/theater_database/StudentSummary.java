@@ -0,0 +1,25 @@
+package com.creighton_theater.theater_database;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A student's netID and name, as returned by the autocomplete search
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@JsonNaming(PropertyNamingStrategies.LowerCaseStrategy.class)
+public record StudentSummary(String netID, String firstName, String lastName) {
+
+    /** Select list read by MAPPER, in component order */
+    public static final String COLUMNS = "netid, firstname, lastname";
+
+    /** Maps a row selected with COLUMNS by column position */
+    public static final RowMapper<StudentSummary> MAPPER = (rs, rowNum) -> new StudentSummary(
+            rs.getString(1),
+            rs.getString(2),
+            rs.getString(3));
+}
@@ -0,0 +1,177 @@
+package com.creighton_theater.theater_database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Case-insensitive "contains" search shared by the filterBy and search
+ * endpoints
+ * On PostgreSQL with pg_trgm installed the match is an ILIKE that the GIN
+ * trigram indexes in schema.sql can serve; anywhere else each searched column
+ * gets an in-memory NgramIndex and the match becomes a key lookup, or a
+ * plain ILIKE scan when it matches too many rows for a lookup to pay off
+ * An index is dropped whenever its table is written and rebuilt on the next
+ * search that needs it
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class SubstringSearch {
+
+    // Key column of each searchable table, used by the in-memory fallback
+    private static final Map<String, String> KEY_COLUMNS = Map.of(
+            "student", "netid",
+            "actor", "netid",
+            "crew", "crewid",
+            "shows", "showid");
+
+    // Past this many matching keys a scan is cheaper than sending the keys,
+    // which one- or two-letter searches on a large table easily reach
+    static final int MAX_KEYS = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    private volatile Boolean trigramAvailable;
+
+    // "table.column" -> index, built on first search and dropped on writes
+    private final Map<String, NgramIndex> indexes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void subscribe() {
+        tableVersions.subscribe(this::drop, KEY_COLUMNS.keySet().toArray(String[]::new));
+    }
+
+    /**
+     * A WHERE clause fragment and its bind parameters
+     *
+     * @param sql  Condition to AND into the query
+     * @param args Values for the condition's placeholders
+     */
+    public record Predicate(String sql, Object... args) {
+    }
+
+    /**
+     * Builds the condition "column contains value, ignoring case"
+     * Callers must have whitelisted table and column
+     *
+     * @param alias  The table's alias in the query ("" if it has none)
+     * @param table  The table holding the column
+     * @param column The column to search
+     * @param value  The text to look for
+     * @return Condition matching rows whose column contains value
+     */
+    public Predicate contains(String alias, String table, String column, String value) {
+        String prefix = alias.isEmpty() ? "" : alias + ".";
+
+        // LIKE '%%' matches every non-null value; no index needed for that
+        if (value.isEmpty()) {
+            return new Predicate(prefix + column + " IS NOT NULL");
+        }
+
+        if (isTrigramAvailable()) {
+            return new Predicate(prefix + column + " ILIKE ?", "%" + escapeLike(value) + "%");
+        }
+
+        List<Object> keys = index(table, column).search(value);
+        if (keys.isEmpty()) {
+            return new Predicate("1 = 0");
+        }
+        if (keys.size() > MAX_KEYS) {
+            return new Predicate(prefix + column + " ILIKE ?", "%" + escapeLike(value) + "%");
+        }
+
+        // One array parameter however many keys match
+        String type = keys.get(0) instanceof Integer ? "integer" : "varchar";
+        return new Predicate(prefix + KEY_COLUMNS.get(table) + " = ANY(?)",
+                new SqlArrayValue(type, keys.toArray()));
+    }
+
+    /**
+     * Drops the in-memory indexes of tables that were just written to
+     */
+    private void drop(Set<String> tables) {
+        indexes.keySet().removeIf(key -> tables.contains(key.substring(0, key.indexOf('.'))));
+    }
+
+    /**
+     * Checks once whether the database can use the trigram indexes
+     * A failed check is not remembered, so a database that was briefly
+     * unreachable at the first search still gets detected later
+     */
+    private boolean isTrigramAvailable() {
+        Boolean available = trigramAvailable;
+        if (available != null) {
+            return available;
+        }
+
+        try {
+            String product = JdbcUtils.commonDatabaseName(JdbcUtils.extractDatabaseMetaData(
+                    jdbcTemplate.getDataSource(), metaData -> metaData.getDatabaseProductName()));
+            available = "PostgreSQL".equals(product) && jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM pg_extension WHERE extname = 'pg_trgm'", Integer.class) > 0;
+            trigramAvailable = available;
+            return available;
+        } catch (MetaDataAccessException | DataAccessException e) {
+            System.err.println("Error checking for pg_trgm: " + e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Returns the in-memory index for a column, loading it if needed
+     * Loaded outside the map, so other columns are not held up, and only
+     * kept if the table did not change while it was being read
+     */
+    private NgramIndex index(String table, String column) {
+        String name = table + "." + column;
+        NgramIndex index = indexes.get(name);
+        if (index != null) {
+            return index;
+        }
+
+        long before = tableVersions.sum(table);
+        String sql = String.format("SELECT %s, %s FROM %s WHERE %s IS NOT NULL",
+                KEY_COLUMNS.get(table), column, table, column);
+        List<Object> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        ReplicaRoutingDataSource.onPrimary(() -> {
+            jdbcTemplate.query(sql, rs -> {
+                keys.add(rs.getObject(1));
+                values.add(rs.getString(2));
+            });
+            return null;
+        });
+        index = new NgramIndex(keys, values);
+
+        indexes.put(name, index);
+        if (tableVersions.sum(table) != before) {
+            indexes.remove(name, index);
+        }
+        return index;
+    }
+
+    /**
+     * Escapes LIKE wildcards so they are matched literally
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
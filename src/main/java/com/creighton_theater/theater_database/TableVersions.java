@@ -0,0 +1,183 @@
+package com.creighton_theater.theater_database;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Monotonic per-table version counters
+ * Every write through CachingJdbcTemplate bumps the table it wrote and the
+ * tables that table cascades into, so "nothing has changed" is a cheap
+ * comparison of counters instead of a re-query. The query cache uses them to
+ * spot stale loads and ETagInterceptor builds its ETags from them
+ * Counters start at zero on every run and only see writes made through this
+ * application
+ * In-memory indexes subscribe to the tables they read and are told once a
+ * write to any of them (or a table cascading into them) is visible
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class TableVersions {
+
+    // ON DELETE/UPDATE CASCADE edges from schema.sql: a write to the key can
+    // change rows in each listed table
+    private static final Map<String, List<String>> CASCADES = Map.of(
+            "student", List.of("actor", "crew", "previous_roles"),
+            "actor", List.of("characters"),
+            "characters", List.of("character_in_scene"),
+            "shows", List.of("characters", "scene", "crew_in_show", "previous_roles"),
+            "scene", List.of("character_in_scene"),
+            "crew", List.of("character_in_scene", "crew_in_show"));
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    // System.nanoTime() of the last change made visible to each table
+    private final Map<String, Long> changedAt = new ConcurrentHashMap<>();
+
+    private record Subscription(Set<String> tables, Consumer<Set<String>> listener) {
+    }
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Bumps the given tables and every table they cascade into
+     *
+     * @param tables The tables that changed
+     * @return Every table that was bumped
+     */
+    public Set<String> bump(String... tables) {
+        Set<String> affected = new LinkedHashSet<>();
+        for (String table : tables) {
+            collectAffected(table.toLowerCase(Locale.ROOT), affected);
+        }
+        for (String table : affected) {
+            counter(table).incrementAndGet();
+        }
+        return affected;
+    }
+
+    /**
+     * Bumps every table seen so far, for writes whose target is unknown
+     */
+    public void bumpAll() {
+        versions.values().forEach(AtomicLong::incrementAndGet);
+    }
+
+    /**
+     * Current versions of the given tables
+     *
+     * @param tables Lowercase table names
+     * @return One version per table, in iteration order
+     */
+    public long[] of(Set<String> tables) {
+        return tables.stream().mapToLong(table -> counter(table).get()).toArray();
+    }
+
+    /**
+     * Combined version of a set of tables
+     * Counters never go down, so the sum changes whenever any of them does
+     *
+     * @param tables Lowercase table names
+     * @return The sum of their versions
+     */
+    public long sum(String... tables) {
+        long sum = 0;
+        for (String table : tables) {
+            sum += counter(table).get();
+        }
+        return sum;
+    }
+
+    /**
+     * Whether any of the given tables changed recently
+     *
+     * @param window How far back to look
+     * @param tables Lowercase table names
+     * @return True if a change to any of them became visible within window
+     */
+    public boolean changedWithin(Duration window, String... tables) {
+        long now = System.nanoTime();
+        for (String table : tables) {
+            Long at = changedAt.get(table);
+            if (at != null && now - at < window.toNanos()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calls listener whenever any of the given tables changes
+     * Listeners run on the writing thread, possibly while its transaction is
+     * still being cleaned up, so they should only drop what they hold and
+     * reload on their next read
+     *
+     * @param listener Receives the subscribed tables that changed
+     * @param tables   Lowercase table names
+     */
+    public void subscribe(Consumer<Set<String>> listener, String... tables) {
+        subscriptions.add(new Subscription(Set.of(tables), listener));
+    }
+
+    /**
+     * Tells the subscribers of any of the given tables that they changed
+     * Called by CachingJdbcTemplate once a write is visible to other
+     * connections
+     *
+     * @param affected Tables that changed, cascades included
+     */
+    public void changed(Set<String> affected) {
+        long now = System.nanoTime();
+        affected.forEach(table -> changedAt.put(table, now));
+        for (Subscription subscription : subscriptions) {
+            Set<String> tables = new LinkedHashSet<>(subscription.tables());
+            tables.retainAll(affected);
+            if (!tables.isEmpty()) {
+                notify(subscription, tables);
+            }
+        }
+    }
+
+    /**
+     * Tells every subscriber that all of its tables changed
+     */
+    public void changedAll() {
+        long now = System.nanoTime();
+        versions.keySet().forEach(table -> changedAt.put(table, now));
+        subscriptions.forEach(subscription -> notify(subscription, subscription.tables()));
+    }
+
+    /**
+     * A failing listener must not fail the write that triggered it
+     */
+    private static void notify(Subscription subscription, Set<String> tables) {
+        try {
+            subscription.listener().accept(tables);
+        } catch (RuntimeException e) {
+            System.err.println("Error dropping state for " + tables + ": " + e.getMessage());
+        }
+    }
+
+    private AtomicLong counter(String table) {
+        return versions.computeIfAbsent(table, t -> new AtomicLong());
+    }
+
+    private static void collectAffected(String table, Set<String> into) {
+        if (into.add(table)) {
+            for (String child : CASCADES.getOrDefault(table, List.of())) {
+                collectAffected(child, into);
+            }
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.creighton_theater.theater_database;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Small JPEG thumbnails of actor photos, kept in a directory on disk
+ * Files are named after the SHA-256 of the photo they were made from, so a
+ * changed photo simply gets a new file and stale ones are never served.
+ * Thumbnails are made on virtual threads as soon as a photo is uploaded;
+ * a request that still misses waits on the one in-flight job for that photo,
+ * so the blob is read from the database once however many requests miss.
+ * When the directory grows past max-bytes the least recently served files
+ * are deleted
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Component
+public class ThumbnailCache {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    @Autowired
+    private ActorPhotoStore actorPhotoStore;
+
+    @Value("${theater.thumbnails.directory:${java.io.tmpdir}/theater-thumbnails}")
+    private Path directory;
+
+    /** Longest side of a thumbnail, in pixels */
+    @Value("${theater.thumbnails.size:160}")
+    private int size;
+
+    @Value("${theater.thumbnails.max-bytes:268435456}")
+    private long maxBytes;
+
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    // One job per photo hash while it is being made
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    // Photos ImageIO cannot decode (e.g. WebP); not worth reading again
+    private final Set<String> undecodable = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    /**
+     * Creates the directory and counts what is already in it
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            totalBytes.set(files.filter(this::isThumbnail).mapToLong(ThumbnailCache::sizeOf).sum());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Starts making the thumbnail for a photo that was just uploaded
+     *
+     * @param netID The actor's netID
+     * @param hash  The new photo's hash
+     */
+    public void photoWritten(String netID, String hash) {
+        if (!Files.exists(pathOf(hash))) {
+            generate(netID, hash);
+        }
+    }
+
+    /**
+     * Builds the response for a thumbnail download
+     * Falls back to the full photo when it cannot be thumbnailed
+     *
+     * @param netID   The actor's netID
+     * @param version The ?v= photo hash the client asked for (optional)
+     * @param request The request headers
+     * @return The thumbnail, or 404 if the actor has no photo
+     */
+    public ResponseEntity<?> serve(String netID, String version, HttpHeaders request) {
+        ActorPhotoStore.Info info = actorPhotoStore.info(netID);
+        if (info == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        String etag = "\"" + info.hash() + "-" + size + "\"";
+        CacheControl cacheControl = info.hash().equals(version) ? IMMUTABLE : REVALIDATE;
+        if (request.getIfNoneMatch().contains(etag) || request.getIfNoneMatch().contains("W/" + etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        Path path = pathOf(info.hash());
+        if (!Files.exists(path)) {
+            path = undecodable.contains(info.hash()) ? null : await(generate(netID, info.hash()));
+        }
+        if (path == null) {
+            return actorPhotoStore.serve(netID, version, request);
+        }
+
+        touch(path);
+        Resource thumbnail = new FileSystemResource(path);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.IMAGE_JPEG)
+                .body(thumbnail);
+    }
+
+    /**
+     * Joins or starts the job that makes a photo's thumbnail
+     */
+    private CompletableFuture<Path> generate(String netID, String hash) {
+        CompletableFuture<Path> job = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(hash, job);
+        if (running != null) {
+            return running;
+        }
+        workers.execute(() -> {
+            try {
+                job.complete(make(netID));
+            } catch (RuntimeException e) {
+                job.completeExceptionally(e);
+            } finally {
+                // After completing, so a request arriving in between finds the result
+                inFlight.remove(hash, job);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Reads the photo, scales it and stores the thumbnail
+     *
+     * @return The thumbnail file, or null if the photo cannot be decoded
+     */
+    private Path make(String netID) {
+        Path original = null;
+        try {
+            // Spool the blob to disk instead of holding it as a byte[]
+            original = Files.createTempFile(directory, "photo-", ".tmp");
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(original), sha256)) {
+                actorPhotoStore.copy(netID, out);
+            }
+
+            // Name the file after what was actually read, in case the photo changed
+            String actual = HexFormat.of().formatHex(sha256.digest());
+            Path path = pathOf(actual);
+            if (Files.exists(path)) {
+                return path;
+            }
+
+            BufferedImage image = ImageIO.read(original.toFile());
+            if (image == null) {
+                undecodable.add(actual);
+                return null;
+            }
+
+            Path partial = Files.createTempFile(directory, "thumb-", ".tmp");
+            ImageIO.write(scale(image), "jpg", partial.toFile());
+            long written = Files.size(partial);
+            Files.move(partial, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            if (totalBytes.addAndGet(written) > maxBytes) {
+                workers.execute(this::evict);
+            }
+            return path;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } finally {
+            if (original != null) {
+                try {
+                    Files.deleteIfExists(original);
+                } catch (IOException e) {
+                    System.err.println("Error removing spooled photo: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Fits an image inside size x size on a white background
+     * Halves the image until it is close to the target first, since a single
+     * large bilinear step skips most of the source pixels
+     */
+    private BufferedImage scale(BufferedImage image) {
+        double ratio = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return draw(current, width, height);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Deletes the least recently served thumbnails until the directory is
+     * back under 90% of max-bytes
+     */
+    private synchronized void evict() {
+        if (totalBytes.get() <= maxBytes) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(this::isThumbnail).forEach(files::add);
+        } catch (IOException e) {
+            System.err.println("Error listing thumbnails: " + e.getMessage());
+            return;
+        }
+        files.sort(Comparator.comparing(ThumbnailCache::lastModified));
+
+        long target = maxBytes / 10 * 9;
+        for (Path file : files) {
+            if (totalBytes.get() <= target) {
+                break;
+            }
+            long bytes = sizeOf(file);
+            try {
+                if (Files.deleteIfExists(file)) {
+                    totalBytes.addAndGet(-bytes);
+                }
+            } catch (IOException e) {
+                System.err.println("Error evicting thumbnail: " + e.getMessage());
+            }
+        }
+    }
+
+    private Path await(CompletableFuture<Path> job) {
+        try {
+            return job.join();
+        } catch (CompletionException e) {
+            System.err.println("Error making thumbnail: " + e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    private Path pathOf(String hash) {
+        return directory.resolve(hash + "-" + size + ".jpg");
+    }
+
+    private boolean isThumbnail(Path path) {
+        return path.getFileName().toString().endsWith("-" + size + ".jpg");
+    }
+
+    // Modification time doubles as last access time for eviction
+    private static void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Evicted since the exists() check; the download fails like any missing file
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.creighton_theater.theater_database;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC settings beyond Spring Boot's defaults
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ETagInterceptor eTagInterceptor;
+
+    // Only present when a read replica is configured
+    @Autowired
+    private ObjectProvider<ReplicaRoutingInterceptor> replicaRoutingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(eTagInterceptor);
+        replicaRoutingInterceptor.ifAvailable(registry::addInterceptor);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        replicaRoutingInterceptor.ifAvailable(interceptor -> configurer.registerCallableInterceptors(interceptor));
+    }
+}
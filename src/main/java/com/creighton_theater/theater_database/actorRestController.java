@@ -1,15 +1,22 @@
 package com.creighton_theater.theater_database;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST Controller for Actor entity operations
@@ -26,59 +33,128 @@ public class actorRestController {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private JsonRowStreamer jsonRowStreamer;
+
+    @Autowired
+    private SubstringSearch substringSearch;
+
+    @Autowired
+    private CsvImporter csvImporter;
+
+    @Autowired
+    private CsvRowStreamer csvRowStreamer;
+
+    @Autowired
+    private MeasurementIndex measurementIndex;
+
+    @Autowired
+    private ActorPhotoStore actorPhotoStore;
+
+    @Autowired
+    private ThumbnailCache thumbnailCache;
+
+    // Actor columns joined to the student's name, shared by the list endpoints
+    private static final String ACTOR_SELECT = """
+            SELECT %s
+            FROM actor a
+            JOIN student s ON a.netid = s.netid
+            """.formatted(Actor.COLUMNS);
+
     /**
-     * Retrieves all actors with their student information
+     * Retrieves one page of actors with their student information
      * Joins actor and student tables to get complete profile
+     * Keyset-paginated on (lastname, firstname, netid); the next page's cursor
+     * is returned in the X-Next-Cursor header
      * 
-     * @return List of all actors with measurements and student info
+     * @param cursor Continuation token from the previous page (optional)
+     * @param limit  Page size, capped at PageCursor.MAX_PAGE_SIZE (optional)
+     * @return One page of actors with measurements and student info
      */
     @GetMapping("/getAll")
-    public ResponseEntity<List<Map<String, Object>>> getAllActors() {
+    @ReadsTables({"actor", "student"})
+    public ResponseEntity<List<Actor>> getAllActors(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            String sql = """
-                    SELECT
-                        s.firstname AS firstname,
-                        s.lastname AS lastname,
-                        a.netid AS netid,
-                        a.yearsactingexperience AS yearsactingexperience,
-                        a.skintone AS skintone,
-                        a.piercings AS piercings,
-                        a.haircolor AS haircolor,
-                        a.previousinjuries AS previousinjuries,
-                        a.specialnotes AS specialnotes,
-                        a.height AS height,
-                        a.ringsize AS ringsize,
-                        a.shoesize AS shoesize,
-                        a.headcirc AS headcirc,
-                        a.neckbase AS neckbase,
-                        a.chest AS chest,
-                        a.waist AS waist,
-                        a.highhip AS highhip,
-                        a.lowhip AS lowhip,
-                        a.armseyetoarmseyefront AS armseyetoarmseyefront,
-                        a.necktowaistfront AS necktowaistfront,
-                        a.armseyetoarmseyeback AS armseyetoarmseyeback,
-                        a.necktowaistback AS necktowaistback,
-                        a.centerbacktowrist AS centerbacktowrist,
-                        a.outsleevetowrist AS outsleevetowrist,
-                        a.outseambelowknee AS outseambelowknee,
-                        a.outseamtoankle AS outseamtoankle,
-                        a.outseamtofloor AS outseamtofloor,
-                        a.othernotes AS othernotes
-                    FROM actor a
-                    JOIN student s ON a.netid = s.netid
-                    ORDER BY s.lastname, s.firstname
-                    """;
+            int pageSize = PageCursor.pageSize(limit);
+            boolean firstPage = cursor == null || cursor.isEmpty();
 
-            List<Map<String, Object>> actors = jdbcTemplate.queryForList(sql);
-            return ResponseEntity.ok(actors);
+            String sql = ACTOR_SELECT
+                    + (firstPage ? "" : "WHERE (s.lastname, s.firstname, a.netid) > (?, ?, ?)\n")
+                    + "ORDER BY s.lastname, s.firstname, a.netid LIMIT ?";
 
+            List<Actor> actors;
+            if (firstPage) {
+                actors = jdbcTemplate.query(sql, Actor.MAPPER, pageSize + 1);
+            } else {
+                String[] after = PageCursor.decode(cursor, 3);
+                actors = jdbcTemplate.query(sql, Actor.MAPPER, after[0], after[1], after[2], pageSize + 1);
+            }
+
+            return PageCursor.page(actors, pageSize,
+                    a -> new Object[] { a.lastName(), a.firstName(), a.netID() });
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
         } catch (DataAccessException e) {
             System.err.println("Error fetching all actors: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
+    /**
+     * Streams every actor with their student information as a JSON array
+     * Rows are written as they are fetched instead of being collected first,
+     * for exports and other callers that want the whole table in one response
+     * 
+     * @return All actors with measurements and student info, ordered by name
+     */
+    @GetMapping("/streamAll")
+    @ReadsTables({"actor", "student"})
+    public ResponseEntity<StreamingResponseBody> streamAllActors() {
+        return jsonRowStreamer.stream(ACTOR_SELECT + "ORDER BY s.lastname, s.firstname, a.netid", Actor.MAPPER);
+    }
+
+    /**
+     * Downloads the measurement sheet as CSV: every actor's name, sizes and
+     * measurements
+     * Streamed straight from COPY ... TO STDOUT, so the whole roster is never
+     * held in memory
+     * 
+     * @param showID Only actors cast in this show (optional)
+     * @return CSV file with a header line, ordered by name
+     */
+    @GetMapping("/exportMeasurements")
+    @ReadsTables({"actor", "student", "characters"})
+    public ResponseEntity<StreamingResponseBody> exportMeasurements(
+            @RequestParam(required = false) String showID) {
+        String where = "";
+        String filename = "measurements.csv";
+        if (showID != null && !showID.isBlank()) {
+            try {
+                // Parsed to an int because COPY cannot take bind parameters
+                int showIdInt = Integer.parseInt(showID.trim());
+                where = "WHERE a.netid IN (SELECT c.netid FROM characters c WHERE c.showid = " + showIdInt + ")\n";
+                filename = "measurements-show-" + showIdInt + ".csv";
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().body(null);
+            }
+        }
+
+        String sql = """
+                SELECT s.netid, s.firstname, s.lastname, s.pronouns,
+                       a.height, a.ringsize, a.shoesize, a.headcirc, a.neckbase, a.chest, a.waist,
+                       a.highhip, a.lowhip, a.armseyetoarmseyefront, a.necktowaistfront,
+                       a.armseyetoarmseyeback, a.necktowaistback, a.centerbacktowrist,
+                       a.outsleevetowrist, a.outseambelowknee, a.outseamtoankle, a.outseamtofloor
+                FROM actor a
+                JOIN student s ON a.netid = s.netid
+                """ + where + "ORDER BY s.lastname, s.firstname, a.netid";
+
+        return csvRowStreamer.stream(sql, filename);
+    }
+
     /**
      * Filters actors by column and value (supports netid, firstname, lastname,
      * shows)
@@ -89,7 +165,8 @@ public class actorRestController {
      * @return List of actors matching the search criteria
      */
     @GetMapping("/filterBy")
-    public ResponseEntity<List<Map<String, Object>>> filterBy(
+    @ReadsTables({"actor", "student", "characters"})
+    public ResponseEntity<List<Actor>> filterBy(
             @RequestParam String column,
             @RequestParam String value) {
         try {
@@ -100,131 +177,111 @@ public class actorRestController {
                 return ResponseEntity.badRequest().body(null);
             }
 
-            String sql;
-
-            if ("shows".equals(column)) {
+            if ("shows".equals(column) && !value.isBlank()) {
                 // Filter by show ID - get actors who played characters in this show
-                sql = """
-                        SELECT DISTINCT
-                            s.firstname AS firstname,
-                            s.lastname AS lastname,
-                            a.netid AS netid,
-                            a.yearsactingexperience AS yearsactingexperience,
-                            a.skintone AS skintone,
-                            a.piercings AS piercings,
-                            a.haircolor AS haircolor,
-                            a.previousinjuries AS previousinjuries,
-                            a.specialnotes AS specialnotes,
-                            a.height AS height,
-                            a.ringsize AS ringsize,
-                            a.shoesize AS shoesize,
-                            a.headcirc AS headcirc,
-                            a.neckbase AS neckbase,
-                            a.chest AS chest,
-                            a.waist AS waist,
-                            a.highhip AS highhip,
-                            a.lowhip AS lowhip,
-                            a.armseyetoarmseyefront AS armseyetoarmseyefront,
-                            a.necktowaistfront AS necktowaistfront,
-                            a.armseyetoarmseyeback AS armseyetoarmseyeback,
-                            a.necktowaistback AS necktowaistback,
-                            a.centerbacktowrist AS centerbacktowrist,
-                            a.outsleevetowrist AS outsleevetowrist,
-                            a.outseambelowknee AS outseambelowknee,
-                            a.outseamtoankle AS outseamtoankle,
-                            a.outseamtofloor AS outseamtofloor,
-                            a.othernotes AS othernotes
+                String sql = """
+                        SELECT DISTINCT %s
                         FROM actor a
                         JOIN student s ON a.netid = s.netid
                         JOIN characters c ON a.netid = c.netid
-                        WHERE c.showid LIKE ?
+                        WHERE c.showid = ?
                         ORDER BY s.lastname, s.firstname
-                        """;
-            } else if ("firstname".equals(column) || "lastname".equals(column)) {
+                        """.formatted(Actor.COLUMNS);
+
+                List<Actor> actors = jdbcTemplate.query(sql, Actor.MAPPER, Integer.parseInt(value.trim()));
+                return ResponseEntity.ok(actors);
+            }
+
+            SubstringSearch.Predicate match;
+            if ("firstname".equals(column) || "lastname".equals(column)) {
                 // Filter by student name fields
-                sql = String.format("""
-                        SELECT
-                            s.firstname AS firstname,
-                            s.lastname AS lastname,
-                            a.netid AS netid,
-                            a.yearsactingexperience AS yearsactingexperience,
-                            a.skintone AS skintone,
-                            a.piercings AS piercings,
-                            a.haircolor AS haircolor,
-                            a.previousinjuries AS previousinjuries,
-                            a.specialnotes AS specialnotes,
-                            a.height AS height,
-                            a.ringsize AS ringsize,
-                            a.shoesize AS shoesize,
-                            a.headcirc AS headcirc,
-                            a.neckbase AS neckbase,
-                            a.chest AS chest,
-                            a.waist AS waist,
-                            a.highhip AS highhip,
-                            a.lowhip AS lowhip,
-                            a.armseyetoarmseyefront AS armseyetoarmseyefront,
-                            a.necktowaistfront AS necktowaistfront,
-                            a.armseyetoarmseyeback AS armseyetoarmseyeback,
-                            a.necktowaistback AS necktowaistback,
-                            a.centerbacktowrist AS centerbacktowrist,
-                            a.outsleevetowrist AS outsleevetowrist,
-                            a.outseambelowknee AS outseambelowknee,
-                            a.outseamtoankle AS outseamtoankle,
-                            a.outseamtofloor AS outseamtofloor,
-                            a.othernotes AS othernotes
-                        FROM actor a
-                        JOIN student s ON a.netid = s.netid
-                        WHERE s.%s LIKE ?
-                        ORDER BY s.lastname, s.firstname
-                        """, column);
+                match = substringSearch.contains("s", "student", column, value);
             } else {
                 // Filter by netid
-                sql = """
-                        SELECT
-                            s.firstname AS firstname,
-                            s.lastname AS lastname,
-                            a.netid AS netid,
-                            a.yearsactingexperience AS yearsactingexperience,
-                            a.skintone AS skintone,
-                            a.piercings AS piercings,
-                            a.haircolor AS haircolor,
-                            a.previousinjuries AS previousinjuries,
-                            a.specialnotes AS specialnotes,
-                            a.height AS height,
-                            a.ringsize AS ringsize,
-                            a.shoesize AS shoesize,
-                            a.headcirc AS headcirc,
-                            a.neckbase AS neckbase,
-                            a.chest AS chest,
-                            a.waist AS waist,
-                            a.highhip AS highhip,
-                            a.lowhip AS lowhip,
-                            a.armseyetoarmseyefront AS armseyetoarmseyefront,
-                            a.necktowaistfront AS necktowaistfront,
-                            a.armseyetoarmseyeback AS armseyetoarmseyeback,
-                            a.necktowaistback AS necktowaistback,
-                            a.centerbacktowrist AS centerbacktowrist,
-                            a.outsleevetowrist AS outsleevetowrist,
-                            a.outseambelowknee AS outseambelowknee,
-                            a.outseamtoankle AS outseamtoankle,
-                            a.outseamtofloor AS outseamtofloor,
-                            a.othernotes AS othernotes
-                        FROM actor a
-                        JOIN student s ON a.netid = s.netid
-                        WHERE a.netid LIKE ?
-                        ORDER BY s.lastname, s.firstname
-                        """;
+                match = substringSearch.contains("a", "actor", "netid", value);
             }
 
-            List<Map<String, Object>> actors = jdbcTemplate.queryForList(sql, "%" + value + "%");
+            String sql = ACTOR_SELECT + "WHERE " + match.sql() + "\nORDER BY s.lastname, s.firstname";
+            List<Actor> actors = jdbcTemplate.query(sql, Actor.MAPPER, match.args());
             return ResponseEntity.ok(actors);
 
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(null);
+
         } catch (DataAccessException e) {
             System.err.println("Error filtering actors: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
+    /**
+     * Finds the actors whose measurements best fit a garment
+     * Every query parameter named after a measurement column (chest, waist,
+     * highhip, ...) is a target value; the rest of the measurements are
+     * ignored. Answered from MeasurementIndex without touching the database
+     * 
+     * @param params  Target measurements, plus optional k and weights
+     * @param k       Number of actors to return (default 5)
+     * @param weights Relative importance as column:weight pairs, e.g.
+     *                chest:2,waist:1 (optional, default 1 each)
+     * @return Closest actors first, or 400 for unknown or non-numeric input
+     */
+    @GetMapping("/nearest")
+    @ReadsTables({"actor", "student"})
+    public ResponseEntity<List<MeasurementMatch>> nearest(
+            @RequestParam Map<String, String> params,
+            @RequestParam(defaultValue = "5") int k,
+            @RequestParam(required = false) String weights) {
+        try {
+            Map<String, Double> target = new HashMap<>();
+            for (Map.Entry<String, String> param : params.entrySet()) {
+                String name = param.getKey().toLowerCase();
+                if (MeasurementIndex.MEASUREMENTS.contains(name)) {
+                    target.put(name, finite(param.getValue()));
+                } else if (!"k".equals(name) && !"weights".equals(name)) {
+                    return ResponseEntity.badRequest().body(null);
+                }
+            }
+
+            Map<String, Double> weightOf = new HashMap<>();
+            if (weights != null && !weights.isBlank()) {
+                for (String pair : weights.split(",")) {
+                    String[] parts = pair.split(":", 2);
+                    String name = parts[0].trim().toLowerCase();
+                    if (parts.length != 2 || !target.containsKey(name)) {
+                        return ResponseEntity.badRequest().body(null);
+                    }
+                    double weight = finite(parts[1]);
+                    if (weight < 0) {
+                        return ResponseEntity.badRequest().body(null);
+                    }
+                    weightOf.put(name, weight);
+                }
+            }
+
+            if (target.isEmpty() || k < 1 || k > MeasurementIndex.MAX_RESULTS) {
+                return ResponseEntity.badRequest().body(null);
+            }
+
+            return ResponseEntity.ok(measurementIndex.nearest(target, weightOf, k));
+
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(null);
+
+        } catch (DataAccessException e) {
+            System.err.println("Error searching measurements: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    private static double finite(String value) {
+        double number = Double.parseDouble(value.trim());
+        if (!Double.isFinite(number)) {
+            throw new NumberFormatException("Not a finite number: " + value);
+        }
+        return number;
+    }
+
     /**
      * Adds a new actor profile for an existing student
      * All measurement fields are optional except netID
@@ -273,14 +330,14 @@ public class actorRestController {
                     ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
                     """;
 
-            jdbcTemplate.update(sql,
+            measurementIndex.updatingActor(netID, () -> jdbcTemplate.update(sql,
                     netID, yearsActingExperience, skinTone, piercings, hairColor, previousInjuries,
                     specialNotes, height, ringSize, shoeSize, headCirc,
                     neckBase, chest, waist, highHip, lowHip,
                     armseyeToArmseyeFront, neckToWaistFront, armseyeToArmseyeBack,
                     neckToWaistBack, centerBackToWrist, outsleeveToWrist,
                     outseamBelowKnee, outseamToAnkle, outseamToFloor,
-                    otherNotes);
+                    otherNotes));
 
             response.put("status", "success");
             response.put("message", "Actor added successfully!");
@@ -303,6 +360,155 @@ public class actorRestController {
         }
     }
 
+    /**
+     * Imports actors from an uploaded CSV file
+     * The first line names the columns: netid is required, any other actor
+     * column is optional. Every netid must already be a student; actors
+     * already in the database are updated
+     * Lines that fail validation are skipped and reported, the rest are saved
+     * 
+     * @param file The CSV file
+     * @return Number of actors imported and the rejected lines
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importActors(@RequestParam MultipartFile file) {
+        Map<String, Object> response = new HashMap<>();
+
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            CsvImporter.Result result = csvImporter.importActors(reader);
+            response.put("status", result.errors().isEmpty() ? "success" : "partial");
+            response.put("message", result.imported() + " actors imported, "
+                    + result.errors().size() + " lines rejected");
+            response.put("imported", result.imported());
+            response.put("errors", result.errors());
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException | IOException e) {
+            response.put("status", "error");
+            response.put("message", "Cannot import file: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+
+        } catch (DataAccessException e) {
+            System.err.println("Error importing actors: " + e.getMessage());
+            response.put("status", "error");
+            response.put("message", "Error importing actors: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Uploads or replaces an actor's photo
+     * The file is streamed into actor.photo; the returned url names the
+     * photo's content hash, so browsers can cache it until it changes
+     * 
+     * @param netID The actor's netID
+     * @param file  A JPEG, PNG, GIF or WebP image
+     * @return The photo's url and hash
+     */
+    @PostMapping("/{netID}/photo")
+    public ResponseEntity<Map<String, String>> uploadPhoto(
+            @PathVariable String netID,
+            @RequestParam MultipartFile file) {
+
+        Map<String, String> response = new HashMap<>();
+
+        try {
+            ActorPhotoStore.Info info = actorPhotoStore.save(netID, file);
+            if (info == null) {
+                response.put("status", "error");
+                response.put("message", "Actor not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+
+            thumbnailCache.photoWritten(netID, info.hash());
+
+            response.put("status", "success");
+            response.put("message", "Photo uploaded successfully!");
+            response.put("hash", info.hash());
+            response.put("url", info.url(netID));
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException | IOException e) {
+            response.put("status", "error");
+            response.put("message", "Cannot upload photo: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+
+        } catch (DataAccessException e) {
+            System.err.println("Error uploading photo: " + e.getMessage());
+            response.put("status", "error");
+            response.put("message", "Error uploading photo: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Downloads an actor's photo
+     * Supports byte ranges and conditional requests; with ?v= set to the
+     * current hash the response may be cached for a year
+     * 
+     * @param netID   The actor's netID
+     * @param v       The photo hash from the upload response (optional)
+     * @param headers Request headers (Range, If-Range, If-None-Match)
+     * @return The photo bytes, or 404 if the actor has no photo
+     */
+    @GetMapping("/{netID}/photo")
+    public ResponseEntity<StreamingResponseBody> getPhoto(
+            @PathVariable String netID,
+            @RequestParam(required = false) String v,
+            @RequestHeader HttpHeaders headers) {
+        try {
+            return actorPhotoStore.serve(netID, v, headers);
+
+        } catch (DataAccessException e) {
+            System.err.println("Error fetching photo: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Downloads a small JPEG of an actor's photo, for casting grids
+     * Served from the on-disk thumbnail cache; caching rules match getPhoto
+     * 
+     * @param netID   The actor's netID
+     * @param v       The photo hash from the upload response (optional)
+     * @param headers Request headers (If-None-Match)
+     * @return The thumbnail, or 404 if the actor has no photo
+     */
+    @GetMapping("/{netID}/thumbnail")
+    public ResponseEntity<?> getThumbnail(
+            @PathVariable String netID,
+            @RequestParam(required = false) String v,
+            @RequestHeader HttpHeaders headers) {
+        try {
+            return thumbnailCache.serve(netID, v, headers);
+
+        } catch (DataAccessException e) {
+            System.err.println("Error fetching thumbnail: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Removes an actor's photo
+     * 
+     * @param netID The actor's netID
+     * @return Response indicating success or failure
+     */
+    @DeleteMapping("/{netID}/photo")
+    public ResponseEntity<String> deletePhoto(@PathVariable String netID) {
+        try {
+            if (actorPhotoStore.delete(netID)) {
+                return ResponseEntity.ok("Photo deleted successfully.");
+            } else {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Photo not found.");
+            }
+
+        } catch (DataAccessException e) {
+            System.err.println("Error deleting photo: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error deleting photo.");
+        }
+    }
+
     /**
      * Edits an existing actor's information
      * netID cannot be changed (it's the primary key and foreign key to student)
@@ -350,14 +556,14 @@ public class actorRestController {
                     WHERE netid = ?
                     """;
 
-            int rowsAffected = jdbcTemplate.update(sql,
+            int rowsAffected = measurementIndex.updatingActor(netID, () -> jdbcTemplate.update(sql,
                     yearsActingExperience, skinTone, piercings, hairColor,
                     previousInjuries, specialNotes, height, ringSize, shoeSize,
                     headCirc, neckBase, chest, waist, highHip, lowHip,
                     armseyeToArmseyeFront, neckToWaistFront, armseyeToArmseyeBack,
                     neckToWaistBack, centerBackToWrist, outsleeveToWrist,
                     outseamBelowKnee, outseamToAnkle, outseamToFloor, otherNotes,
-                    netID);
+                    netID));
 
             if (rowsAffected > 0) {
                 response.put("status", "success");
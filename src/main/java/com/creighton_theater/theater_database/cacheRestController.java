@@ -0,0 +1,64 @@
+package com.creighton_theater.theater_database;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * REST Controller for the query result cache
+ * Reports hit/miss statistics and allows a manual flush, of the cache and
+ * every in-memory index, after the database was edited outside the
+ * application
+ *
+ * @author Cameron Abanes
+ * @version 2.0
+ */
+@RestController
+@RequestMapping("/cache")
+public class cacheRestController {
+
+    @Autowired
+    private CachingJdbcTemplate jdbcTemplate;
+
+    /**
+     * Retrieves hit/miss/eviction counts since startup
+     *
+     * @return Cache statistics and current size
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        CacheStats stats = jdbcTemplate.stats();
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("hits", stats.hitCount());
+        response.put("misses", stats.missCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("evictions", stats.evictionCount());
+        response.put("size", jdbcTemplate.size());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Drops every cached result and in-memory index; indexes reload on their
+     * next use
+     *
+     * @return Success message
+     */
+    @PostMapping("/clear")
+    public ResponseEntity<Map<String, String>> clear() {
+        jdbcTemplate.invalidateAll();
+
+        Map<String, String> response = new LinkedHashMap<>();
+        response.put("status", "success");
+        response.put("message", "Query cache and indexes cleared");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST Controller for Character entity operations
@@ -27,38 +28,92 @@ public class characterRestController {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private JsonRowStreamer jsonRowStreamer;
+
+    @Autowired
+    private QuickChangeAnalyzer quickChangeAnalyzer;
+
+    @Autowired
+    private CastingConflictDetector castingConflicts;
+
+    // Character columns joined to the actor's name and the show
+    private static final String CHARACTER_SELECT = """
+            SELECT %s
+            FROM characters c
+            JOIN student s ON c.netid = s.netid
+            JOIN shows sh ON c.showid = sh.showid
+            """.formatted(CharacterRole.COLUMNS);
+
+    // Newest shows first; showid and netid make the sort key unique for paging
+    private static final String CHARACTER_ORDER = """
+            ORDER BY COALESCE(sh.yearsemester, '') DESC, COALESCE(sh.showname, ''),
+                     c.charactername, c.showid, c.netid""";
+
     /**
-     * Retrieves all characters with their show and student information
+     * Retrieves one page of characters with their show and student information
+     * Keyset-paginated on the existing newest-show-first ordering, with showid
+     * and netid appended so the sort key is unique; the next page's cursor is
+     * returned in the X-Next-Cursor header
      * 
-     * @return List of all characters with related data
+     * @param cursor Continuation token from the previous page (optional)
+     * @param limit  Page size, capped at PageCursor.MAX_PAGE_SIZE (optional)
+     * @return One page of characters with related data
      */
     @GetMapping("/getAll")
-    public ResponseEntity<List<Map<String, Object>>> getAllCharacters() {
+    @ReadsTables({"characters", "student", "shows"})
+    public ResponseEntity<List<CharacterRole>> getAllCharacters(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            String sql = """
-                    SELECT
-                        s.firstname AS firstname,
-                        s.lastname AS lastname,
-                        c.charactername AS charactername,
-                        c.netid AS netid,
-                        c.showid AS showid,
-                        sh.showname AS showname,
-                        sh.yearsemester AS showsemester
-                    FROM characters c
-                    JOIN student s ON c.netid = s.netid
-                    JOIN shows sh ON c.showid = sh.showid
-                    ORDER BY sh.yearsemester DESC, sh.showname, c.charactername
-                    """;
+            int pageSize = PageCursor.pageSize(limit);
+            boolean firstPage = cursor == null || cursor.isEmpty();
+
+            // yearsemester sorts DESC while the rest sort ASC, so the keyset
+            // predicate can't be a single row comparison
+            String sql = CHARACTER_SELECT
+                    + (firstPage ? "" : """
+                            WHERE COALESCE(sh.yearsemester, '') < ?
+                               OR (COALESCE(sh.yearsemester, '') = ?
+                                   AND (COALESCE(sh.showname, ''), c.charactername, c.showid, c.netid) > (?, ?, ?, ?))
+                            """)
+                    + CHARACTER_ORDER + " LIMIT ?";
+
+            List<CharacterRole> characters;
+            if (firstPage) {
+                characters = jdbcTemplate.query(sql, CharacterRole.MAPPER, pageSize + 1);
+            } else {
+                String[] after = PageCursor.decode(cursor, 5);
+                int afterShowId = Integer.parseInt(after[3]);
+                characters = jdbcTemplate.query(sql, CharacterRole.MAPPER,
+                        after[0], after[0], after[1], after[2], afterShowId, after[4], pageSize + 1);
+            }
 
-            List<Map<String, Object>> characters = jdbcTemplate.queryForList(sql);
-            return ResponseEntity.ok(characters);
+            return PageCursor.page(characters, pageSize, c -> new Object[] {
+                    c.showSemester(), c.showName(), c.characterName(), c.showID(), c.netID() });
 
+        } catch (IllegalArgumentException e) {
+            // Also covers NumberFormatException from a tampered cursor
+            return ResponseEntity.badRequest().body(null);
         } catch (DataAccessException e) {
             System.err.println("Error fetching all characters: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
+    /**
+     * Streams every character with their show and student information as a
+     * JSON array
+     * Rows are written as they are fetched instead of being collected first
+     * 
+     * @return All characters, newest shows first
+     */
+    @GetMapping("/streamAll")
+    @ReadsTables({"characters", "student", "shows"})
+    public ResponseEntity<StreamingResponseBody> streamAllCharacters() {
+        return jsonRowStreamer.stream(CHARACTER_SELECT + CHARACTER_ORDER, CharacterRole.MAPPER);
+    }
+
     /**
      * Filters characters by a specific column and value
      * Supports filtering across joined tables (characters, student, shows)
@@ -69,7 +124,8 @@ public class characterRestController {
      * @return List of characters matching the filter criteria
      */
     @GetMapping("/filterBy")
-    public ResponseEntity<List<Map<String, Object>>> filterBy(
+    @ReadsTables({"characters", "student", "shows"})
+    public ResponseEntity<List<CharacterRole>> filterBy(
             @RequestParam String column,
             @RequestParam String value,
             @RequestParam String page) {
@@ -93,17 +149,7 @@ public class characterRestController {
             // Build SQL with proper operator
             String operator = isNumeric ? "=" : "LIKE";
 
-            String sql = String.format("""
-                    SELECT s.firstname AS firstname,
-                           s.lastname AS lastname,
-                           c.charactername AS charactername,
-                           c.netid AS netid,
-                           c.showid AS showid,
-                           sh.showname AS showname,
-                           sh.yearsemester AS showsemester
-                    FROM characters c
-                    JOIN student s ON c.netid = s.netid
-                    JOIN shows sh ON c.showid = sh.showid
+            String sql = CHARACTER_SELECT + String.format("""
                     WHERE %s.%s %s ?
                     ORDER BY sh.yearsemester DESC, sh.showname
                     """, page, column, operator);
@@ -111,7 +157,7 @@ public class characterRestController {
             // Use integer value for numeric, string with % for LIKE
             Object param = isNumeric ? Integer.parseInt(value) : "%" + value + "%";
 
-            List<Map<String, Object>> characters = jdbcTemplate.queryForList(sql, param);
+            List<CharacterRole> characters = jdbcTemplate.query(sql, CharacterRole.MAPPER, param);
             return ResponseEntity.ok(characters);
 
         } catch (NumberFormatException e) {
@@ -134,28 +180,17 @@ public class characterRestController {
      * @return Character information
      */
     @GetMapping("/getCharacter")
-    public ResponseEntity<Map<String, Object>> getCharacter(
+    @ReadsTables({"characters", "student", "shows"})
+    public ResponseEntity<CharacterRole> getCharacter(
             @RequestParam String characterName,
             @RequestParam String showID,
             @RequestParam String netID) {
         try {
-            String sql = """
-                    SELECT
-                        s.firstname AS firstname,
-                        s.lastname AS lastname,
-                        c.charactername AS charactername,
-                        c.netid AS netid,
-                        c.showid AS showid,
-                        sh.showname AS showname,
-                        sh.yearsemester AS showsemester
-                    FROM characters c
-                    JOIN student s ON c.netid = s.netid
-                    JOIN shows sh ON c.showid = sh.showid
-                    WHERE c.charactername = ? AND c.showid = ? AND c.netid = ?
-                    """;
+            String sql = CHARACTER_SELECT + "WHERE c.charactername = ? AND c.showid = ? AND c.netid = ?";
 
             int showIdInt = Integer.parseInt(showID);
-            Map<String, Object> character = jdbcTemplate.queryForMap(sql, characterName, showIdInt, netID);
+            CharacterRole character = jdbcTemplate.queryForObject(sql, CharacterRole.MAPPER,
+                    characterName, showIdInt, netID);
             return ResponseEntity.ok(character);
 
         } catch (DataAccessException e) {
@@ -260,11 +295,38 @@ public class characterRestController {
             int oldShowIdInt = Integer.parseInt(oldShowID);
             int newShowIdInt = Integer.parseInt(newShowID);
 
-            int rowsAffected = jdbcTemplate.update(sql,
-                    newCharacterName, newNetID, newShowIdInt,
-                    oldCharacterName, oldNetID, oldShowIdInt);
+            // Checked and updated under the show's lock, so no scene detail for
+            // the new actor can be saved in between
+            int[] rowsAffected = new int[1];
+            List<String> clashes = castingConflicts.locked(oldShowIdInt, () -> {
+                if (oldShowIdInt == newShowIdInt && !oldNetID.equals(newNetID)) {
+                    List<String> found = castingConflicts.checkRecast(oldShowIdInt, oldCharacterName,
+                            oldNetID, newNetID);
+                    if (!found.isEmpty()) {
+                        return found;
+                    }
+                }
+                rowsAffected[0] = jdbcTemplate.update(sql,
+                        newCharacterName, newNetID, newShowIdInt,
+                        oldCharacterName, oldNetID, oldShowIdInt);
+                if (rowsAffected[0] > 0) {
+                    // Renames and recasts cascade into character_in_scene
+                    castingConflicts.forget(oldShowIdInt);
+                    castingConflicts.forget(newShowIdInt);
+                }
+                return List.of();
+            });
+
+            if (!clashes.isEmpty()) {
+                response.put("status", "error");
+                response.put("message", newNetID + " is already on stage in " + String.join(", ", clashes)
+                        + " as another character");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            }
 
-            if (rowsAffected > 0) {
+            if (rowsAffected[0] > 0) {
+                quickChangeAnalyzer.forget(oldShowIdInt);
+                quickChangeAnalyzer.forget(newShowIdInt);
                 response.put("status", "success");
                 response.put("message", "Character updated successfully!");
                 return ResponseEntity.ok(response);
@@ -318,6 +380,8 @@ public class characterRestController {
             int rowsAffected = jdbcTemplate.update(sql, characterName, showIdInt, netID);
 
             if (rowsAffected > 0) {
+                quickChangeAnalyzer.forget(showIdInt);
+                castingConflicts.forget(showIdInt);
                 return ResponseEntity.ok("Character deleted successfully.");
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Character not found.");
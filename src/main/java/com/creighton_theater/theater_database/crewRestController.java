@@ -8,7 +8,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -28,37 +27,52 @@ import org.springframework.web.bind.annotation.RestController;
 public class crewRestController {
 
     @Autowired
-    private JdbcTemplate jdbcTemplate;
+    private CachingJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SubstringSearch substringSearch;
 
     /**
-     * Retrieves all crew members with formatted boolean fields
+     * Retrieves one page of crew members with formatted boolean fields
      * Joins with student table to get names
+     * Keyset-paginated on (lastname, firstname, crewid); the next page's cursor
+     * is returned in the X-Next-Cursor header
      * 
-     * @return List of all crew members
+     * @param cursor Continuation token from the previous page (optional)
+     * @param limit  Page size, capped at PageCursor.MAX_PAGE_SIZE (optional)
+     * @return One page of crew members
      */
     @GetMapping("/getAll")
-    public ResponseEntity<List<Map<String, Object>>> getAllCrew() {
+    @ReadsTables({"crew", "student"})
+    public ResponseEntity<List<Crew>> getAllCrew(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            String sql = """
-                    SELECT
-                        c.crewid AS crewid,
-                        s.firstname AS firstname,
-                        s.lastname AS lastname,
-                        CASE WHEN c.wigtrained = true THEN 'Yes' ELSE 'No' END AS wigtrained,
-                        CASE WHEN c.makeuptrained = true THEN 'Yes' ELSE 'No' END AS makeuptrained,
-                        CASE WHEN c.musicreading = true THEN 'Yes' ELSE 'No' END AS musicreading,
-                        c.lighting AS lighting,
-                        c.sound AS sound,
-                        c.specialty AS specialty,
-                        c.notes AS notes
+            int pageSize = PageCursor.pageSize(limit);
+            boolean firstPage = cursor == null || cursor.isEmpty();
+
+            String sql = String.format("""
+                    SELECT %s
                     FROM crew c
                     JOIN student s ON c.crewid = s.netid
-                    ORDER BY s.lastname, s.firstname
-                    """;
+                    %s
+                    ORDER BY s.lastname, s.firstname, c.crewid
+                    LIMIT ?
+                    """, Crew.COLUMNS, firstPage ? "" : "WHERE (s.lastname, s.firstname, c.crewid) > (?, ?, ?)");
+
+            List<Crew> crew;
+            if (firstPage) {
+                crew = jdbcTemplate.queryCached(sql, Crew.MAPPER, pageSize + 1);
+            } else {
+                String[] after = PageCursor.decode(cursor, 3);
+                crew = jdbcTemplate.queryCached(sql, Crew.MAPPER, after[0], after[1], after[2], pageSize + 1);
+            }
 
-            List<Map<String, Object>> crew = jdbcTemplate.queryForList(sql);
-            return ResponseEntity.ok(crew);
+            return PageCursor.page(crew, pageSize,
+                    c -> new Object[] { c.lastName(), c.firstName(), c.crewID() });
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
         } catch (DataAccessException e) {
             System.err.println("Error fetching all crew: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -72,27 +86,19 @@ public class crewRestController {
      * @return List of crew members matching the search
      */
     @GetMapping("/filterBy")
-    public ResponseEntity<List<Map<String, Object>>> filterBy(@RequestParam String value) {
+    @ReadsTables({"crew", "student"})
+    public ResponseEntity<List<Crew>> filterBy(@RequestParam String value) {
         try {
+            SubstringSearch.Predicate match = substringSearch.contains("c", "crew", "crewid", value);
             String sql = """
-                    SELECT
-                        c.crewid AS crewid,
-                        s.firstname AS firstname,
-                        s.lastname AS lastname,
-                        CASE WHEN c.wigtrained = true THEN 'Yes' ELSE 'No' END AS wigtrained,
-                        CASE WHEN c.makeuptrained = true THEN 'Yes' ELSE 'No' END AS makeuptrained,
-                        CASE WHEN c.musicreading = true THEN 'Yes' ELSE 'No' END AS musicreading,
-                        c.lighting AS lighting,
-                        c.sound AS sound,
-                        c.specialty AS specialty,
-                        c.notes AS notes
+                    SELECT %s
                     FROM crew c
                     JOIN student s ON c.crewid = s.netid
-                    WHERE c.crewid LIKE ?
+                    WHERE %s
                     ORDER BY s.lastname, s.firstname
-                    """;
+                    """.formatted(Crew.COLUMNS, match.sql());
 
-            List<Map<String, Object>> crew = jdbcTemplate.queryForList(sql, "%" + value + "%");
+            List<Crew> crew = jdbcTemplate.query(sql, Crew.MAPPER, match.args());
             return ResponseEntity.ok(crew);
 
         } catch (DataAccessException e) {
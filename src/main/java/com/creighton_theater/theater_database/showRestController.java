@@ -1,15 +1,21 @@
 package com.creighton_theater.theater_database;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -23,8 +29,26 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/shows")
 public class showRestController {
 
+    /** Most rows accepted by one bulkSceneDetails request */
+    private static final int MAX_BULK_ROWS = 5000;
+
+    @Autowired
+    private CachingJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SubstringSearch substringSearch;
+
     @Autowired
-    private JdbcTemplate jdbcTemplate;
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private QuickChangeAnalyzer quickChangeAnalyzer;
+
+    @Autowired
+    private CastingConflictDetector castingConflicts;
 
     /**
      * Retrieves all shows from the database
@@ -32,21 +56,16 @@ public class showRestController {
      * @return List of all shows with their information
      */
     @GetMapping("/getAll")
-    public ResponseEntity<List<Map<String, Object>>> getAllShows() {
+    @ReadsTables({"shows"})
+    public ResponseEntity<List<Show>> getAllShows() {
         try {
             String sql = """
-                    SELECT
-                        s.showid as showid,
-                        s.showname as showname,
-                        s.yearsemester as yearsemester,
-                        s.genre as genre,
-                        s.director as director,
-                        s.playwright as playwright
-                    FROM shows s
-                    ORDER BY s.yearsemester DESC, s.showname
-                    """;
+                    SELECT %s
+                    FROM shows
+                    ORDER BY yearsemester DESC, showname
+                    """.formatted(Show.COLUMNS);
 
-            List<Map<String, Object>> shows = jdbcTemplate.queryForList(sql);
+            List<Show> shows = jdbcTemplate.queryCached(sql, Show.MAPPER);
             return ResponseEntity.ok(shows);
 
         } catch (DataAccessException e) {
@@ -60,11 +79,13 @@ public class showRestController {
      * Used for autocomplete functionality in forms
      * 
      * @param searchBy    The field to search by (showname, yearsemester, showid)
-     * @param searchValue The value to search for (supports partial matches)
+     * @param searchValue The value to search for (prefix for showname, partial
+     *                    match for yearsemester, exact for showid)
      * @return List of shows matching the search criteria
      */
     @GetMapping("/getShowIDName")
-    public ResponseEntity<List<Map<String, Object>>> getShowIDName(
+    @ReadsTables({"shows"})
+    public ResponseEntity<List<Show>> getShowIDName(
             @RequestParam String searchBy,
             @RequestParam String searchValue) {
 
@@ -72,18 +93,31 @@ public class showRestController {
             // Whitelist allowed search columns
             List<String> allowedColumns = List.of("showname", "yearsemester", "showid");
 
+            searchBy = searchBy.toLowerCase();
             if (!allowedColumns.contains(searchBy)) {
                 return ResponseEntity.badRequest().body(null);
             }
 
+            // Show names come from the in-memory AutocompleteIndex
+            if ("showname".equals(searchBy)) {
+                return ResponseEntity.ok(autocompleteIndex.showsByName(searchValue));
+            }
+
+            // showid is an integer column, so it is looked up exactly
+            SubstringSearch.Predicate match = "showid".equals(searchBy)
+                    ? new SubstringSearch.Predicate("showid = ?", Integer.parseInt(searchValue.trim()))
+                    : substringSearch.contains("", "shows", searchBy, searchValue);
+
             // Build SQL with validated column name
             String sql = String.format(
-                    "SELECT showname, yearsemester, showid, genre, playwright FROM shows WHERE %s LIKE ? ORDER BY yearsemester DESC",
-                    searchBy);
+                    "SELECT %s FROM shows WHERE %s ORDER BY yearsemester DESC",
+                    Show.COLUMNS, match.sql());
 
-            List<Map<String, Object>> shows = jdbcTemplate.queryForList(sql, "%" + searchValue + "%");
+            List<Show> shows = jdbcTemplate.query(sql, Show.MAPPER, match.args());
             return ResponseEntity.ok(shows);
 
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(null);
         } catch (DataAccessException e) {
             System.err.println("Error searching shows: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -97,24 +131,20 @@ public class showRestController {
      * @return List of crew members with their roles in the show
      */
     @GetMapping("/getCrew")
-    public ResponseEntity<List<Map<String, Object>>> getShowCrew(@RequestParam String showID) {
+    @ReadsTables({"crew_in_show", "shows", "student"})
+    public ResponseEntity<List<ShowCrewMember>> getShowCrew(@RequestParam String showID) {
         try {
             String sql = """
-                    SELECT
-                        s.showname,
-                        s.yearsemester,
-                        st.firstname,
-                        st.lastname,
-                        cs.roles,
-                        cs.crewid
+                    SELECT %s
                     FROM crew_in_show cs
                     JOIN shows s ON cs.showid = s.showid
                     JOIN student st ON st.netid = cs.crewid
                     WHERE s.showid = ?
                     ORDER BY st.lastname, st.firstname
-                    """;
+                    """.formatted(ShowCrewMember.COLUMNS);
 
-            List<Map<String, Object>> crewMembers = jdbcTemplate.queryForList(sql, showID);
+            int showIdInt = Integer.parseInt(showID);
+            List<ShowCrewMember> crewMembers = jdbcTemplate.queryCached(sql, ShowCrewMember.MAPPER, showIdInt);
             return ResponseEntity.ok(crewMembers);
 
         } catch (DataAccessException e) {
@@ -130,27 +160,19 @@ public class showRestController {
      * @return List of scenes in the show
      */
     @GetMapping("/getScenesInShow")
-    public ResponseEntity<List<Map<String, Object>>> getScenesInShow(@RequestParam String showID) {
+    @ReadsTables({"scene", "shows"})
+    public ResponseEntity<List<Scene>> getScenesInShow(@RequestParam String showID) {
         try {
             String sql = """
-                    SELECT
-                        s.showname,
-                        s.yearsemester,
-                        sc.scenename,
-                        sc.act,
-                        sc.locationset,
-                        sc.song,
-                        sc.bookscriptpages,
-                        sc.crewinshow,
-                        sc.showid
+                    SELECT %s
                     FROM scene sc
                     JOIN shows s ON sc.showid = s.showid
                     WHERE s.showid = ?
                     ORDER BY sc.act, sc.scenename
-                    """;
+                    """.formatted(Scene.COLUMNS);
 
             int showIdInt = Integer.parseInt(showID);
-            List<Map<String, Object>> scenes = jdbcTemplate.queryForList(sql, new Object[] { showIdInt });
+            List<Scene> scenes = jdbcTemplate.queryCached(sql, Scene.MAPPER, showIdInt);
 
             return ResponseEntity.ok(scenes);
 
@@ -223,23 +245,20 @@ public class showRestController {
      * @return
      */
     @GetMapping("/getCharactersInShow")
-    public ResponseEntity<List<Map<String, Object>>> getCharactersInShow(@RequestParam String showID) {
+    @ReadsTables({"characters", "shows", "student"})
+    public ResponseEntity<List<CastMember>> getCharactersInShow(@RequestParam String showID) {
         try {
             String sql = """
-                    SELECT
-                        c.charactername,
-                        st.firstname || ' ' || st.lastname AS actorName,
-                        c.netid,
-                        c.showid
+                    SELECT %s
                     FROM characters c
                     JOIN shows s on c.showid = s.showid
                     JOIN student st ON c.netid = st.netid
                     WHERE s.showid = ?
                     ORDER BY c.charactername
-                    """;
+                    """.formatted(CastMember.COLUMNS);
 
             int showIdInt = Integer.parseInt(showID);
-            List<Map<String, Object>> characters = jdbcTemplate.queryForList(sql, new Object[] { showIdInt });
+            List<CastMember> characters = jdbcTemplate.queryCached(sql, CastMember.MAPPER, showIdInt);
             return ResponseEntity.ok(characters);
 
         } catch (DataAccessException e) {
@@ -248,38 +267,184 @@ public class showRestController {
         }
     }
 
+    /**
+     * Retrieves a show with its scenes (each with its characters' details),
+     * cast and crew as one nested JSON document
+     * PostgreSQL builds the document with json_agg in a single query and the
+     * text is passed through to the response as is, never parsed into Java
+     * objects. Lists use the same field names and ordering as getScenesInShow,
+     * getSceneDetails, getCharactersInShow and getCrew
+     * 
+     * @param showID The show ID
+     * @return The show document, or 404 if there is no such show
+     */
+    @GetMapping(value = "/{showID}/breakdown", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ReadsTables({"shows", "scene", "character_in_scene", "characters", "crew_in_show", "student"})
+    public ResponseEntity<String> getBreakdown(@PathVariable String showID) {
+        try {
+            String sql = """
+                    SELECT json_build_object(
+                        'showid', sh.showid,
+                        'showname', sh.showname,
+                        'yearsemester', sh.yearsemester,
+                        'genre', sh.genre,
+                        'director', sh.director,
+                        'playwright', sh.playwright,
+                        'scenes', COALESCE((
+                            SELECT json_agg(json_build_object(
+                                'scenename', sc.scenename,
+                                'act', sc.act,
+                                'locationset', sc.locationset,
+                                'song', sc.song,
+                                'bookscriptpages', sc.bookscriptpages,
+                                'crewinshow', sc.crewinshow,
+                                'showid', sc.showid,
+                                'characters', COALESCE((
+                                    SELECT json_agg(json_build_object(
+                                        'charactername', cs.charactername,
+                                        'actorname', st.firstname || ' ' || st.lastname,
+                                        'costumechange', cs.costumechange,
+                                        'costumeworn', cs.costumeworn,
+                                        'characterlocation', cs.characterlocation,
+                                        'changelocation', cs.changelocation,
+                                        'changetime', cs.changelengthoftime,
+                                        'notes', cs.additionalnotes,
+                                        'scenename', cs.scenename,
+                                        'netid', cs.netid,
+                                        'showid', cs.showid) ORDER BY cs.charactername)
+                                    FROM character_in_scene cs
+                                    JOIN student st ON cs.netid = st.netid
+                                    WHERE cs.showid = sc.showid AND cs.scenename = sc.scenename), '[]'::json))
+                                ORDER BY sc.act, sc.scenename)
+                            FROM scene sc
+                            WHERE sc.showid = sh.showid), '[]'::json),
+                        'characters', COALESCE((
+                            SELECT json_agg(json_build_object(
+                                'charactername', c.charactername,
+                                'actorname', st.firstname || ' ' || st.lastname,
+                                'netid', c.netid,
+                                'showid', c.showid) ORDER BY c.charactername)
+                            FROM characters c
+                            JOIN student st ON c.netid = st.netid
+                            WHERE c.showid = sh.showid), '[]'::json),
+                        'crew', COALESCE((
+                            SELECT json_agg(json_build_object(
+                                'firstname', st.firstname,
+                                'lastname', st.lastname,
+                                'roles', cs.roles,
+                                'crewid', cs.crewid) ORDER BY st.lastname, st.firstname)
+                            FROM crew_in_show cs
+                            JOIN student st ON st.netid = cs.crewid
+                            WHERE cs.showid = sh.showid), '[]'::json)
+                    )::text
+                    FROM shows sh
+                    WHERE sh.showid = ?
+                    """;
+
+            int showIdInt = Integer.parseInt(showID);
+            List<String> breakdown = jdbcTemplate.queryCached(sql, (rs, rowNum) -> rs.getString(1), showIdInt);
+            if (breakdown.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+            }
+            return ResponseEntity.ok(breakdown.get(0));
+
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (DataAccessException e) {
+            System.err.println("Error fetching show breakdown: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    /**
+     * Costume changes between each actor's consecutive scenes, with the
+     * quick changes that cannot be made in time and each dresser's load
+     * 
+     * @param showID The show ID
+     * @return The show's quick-change report
+     */
+    @GetMapping("/{showID}/quickChanges")
+    @ReadsTables({"scene", "character_in_scene"})
+    public ResponseEntity<QuickChangeReport> getQuickChanges(@PathVariable String showID) {
+        try {
+            return ResponseEntity.ok(quickChangeAnalyzer.report(Integer.parseInt(showID)));
+
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+
+        } catch (DataAccessException e) {
+            System.err.println("Error analyzing quick changes: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    /**
+     * Scenes where an actor playing several characters is placed more than once
+     * 
+     * @param showID The show ID
+     * @return The conflicting actor, scene and characters
+     */
+    @GetMapping("/{showID}/conflicts")
+    @ReadsTables({"scene", "character_in_scene"})
+    public ResponseEntity<List<CastingConflict>> getConflicts(@PathVariable String showID) {
+        try {
+            return ResponseEntity.ok(castingConflicts.conflicts(Integer.parseInt(showID)));
+
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+
+        } catch (DataAccessException e) {
+            System.err.println("Error checking casting conflicts: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
     /**
      * Retrieves characters in a specific scene
+     * With a showID this is an exact lookup of one show's scene, served by
+     * the (showid, scenename, ...) primary key. Without one it falls back to
+     * the old substring match on the scene name across every show
      * 
      * @param sceneName The name of the scene
+     * @param showID    The show the scene belongs to (optional)
      * @return List of characters with their details in the scene
      */
     @GetMapping("/getSceneDetails")
-    public ResponseEntity<List<Map<String, Object>>> getCharactersInScene(@RequestParam String sceneName) {
+    @ReadsTables({"character_in_scene", "shows", "student"})
+    public ResponseEntity<List<SceneDetail>> getCharactersInScene(
+            @RequestParam String sceneName,
+            @RequestParam(required = false) String showID) {
         try {
-            String sql = """
-                    SELECT
-                        cs.charactername,
-                        st.firstname || ' ' || st.lastname AS actorName,
-                        cs.costumechange,
-                        cs.costumeworn,
-                        cs.characterlocation,
-                        cs.changelocation,
-                        cs.changelengthoftime AS changetime,
-                        cs.additionalnotes AS notes,
-                        cs.scenename,
-                        cs.netid,
-                        cs.showid
-                    FROM character_in_scene cs
-                    JOIN shows s on cs.showid = s.showid
-                    JOIN student st ON cs.netid = st.netid
-                    WHERE cs.scenename LIKE CONCAT('%', ?, '%')
-                    ORDER BY cs.charactername
-                    """;
-
-            List<Map<String, Object>> characters = jdbcTemplate.queryForList(sql, new Object[] { sceneName });
+            List<SceneDetail> characters;
+
+            if (showID != null && !showID.isBlank()) {
+                String sql = """
+                        SELECT %s
+                        FROM character_in_scene cs
+                        JOIN shows s on cs.showid = s.showid
+                        JOIN student st ON cs.netid = st.netid
+                        WHERE cs.showid = ? AND cs.scenename = ?
+                        ORDER BY cs.charactername
+                        """.formatted(SceneDetail.COLUMNS);
+
+                int showIdInt = Integer.parseInt(showID);
+                characters = jdbcTemplate.queryCached(sql, SceneDetail.MAPPER, showIdInt, sceneName);
+            } else {
+                String sql = """
+                        SELECT %s
+                        FROM character_in_scene cs
+                        JOIN shows s on cs.showid = s.showid
+                        JOIN student st ON cs.netid = st.netid
+                        WHERE cs.scenename LIKE CONCAT('%%', ?, '%%')
+                        ORDER BY cs.charactername
+                        """.formatted(SceneDetail.COLUMNS);
+
+                characters = jdbcTemplate.query(sql, SceneDetail.MAPPER, sceneName);
+            }
             return ResponseEntity.ok(characters);
 
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(null);
         } catch (DataAccessException e) {
             System.err.println("Error fetching characters for scene: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -319,6 +484,8 @@ public class showRestController {
             int showIdInt = Integer.parseInt(showID);
             int actInt = Integer.parseInt(act);
             jdbcTemplate.update(sql, scenename, actInt, locationset, song, bookscriptpages, crewinshow, showIdInt);
+            quickChangeAnalyzer.forget(showIdInt);
+            castingConflicts.forget(showIdInt);
 
             response.put("status", "success");
             response.put("message", "Scene added successfully!");
@@ -391,6 +558,8 @@ public class showRestController {
                     crewinshow, scenename, showIdInt);
 
             if (rowsAffected > 0) {
+                quickChangeAnalyzer.forget(showIdInt);
+                castingConflicts.forget(showIdInt);
                 response.put("status", "success");
                 response.put("message", "Scene updated successfully!");
                 return ResponseEntity.ok(response);
@@ -447,8 +616,23 @@ public class showRestController {
                     """;
 
             int showIdInt = Integer.parseInt(showID);
-            jdbcTemplate.update(sql, scenename, charactername, netid, showIdInt, costumechange, costumeworn,
-                    characterlocation, changelocation, changetime, notes);
+
+            // Under the show's lock, so two requests cannot both find the scene free
+            String other = castingConflicts.locked(showIdInt, () -> {
+                String occupied = castingConflicts.check(showIdInt, netid, charactername, scenename);
+                if (occupied == null) {
+                    jdbcTemplate.update(sql, scenename, charactername, netid, showIdInt, costumechange,
+                            costumeworn, characterlocation, changelocation, changetime, notes);
+                    castingConflicts.placed(showIdInt, netid, charactername, scenename, true);
+                }
+                return occupied;
+            });
+            if (other != null) {
+                response.put("status", "error");
+                response.put("message", netid + " is already in this scene as " + other);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            }
+            quickChangeAnalyzer.actorChanged(showIdInt, netid);
 
             response.put("status", "success");
             response.put("message", "Scene details added successfully!");
@@ -478,6 +662,156 @@ public class showRestController {
         }
     }
 
+    /**
+     * Adds or updates the scene details of many characters in one request
+     * Every row is checked against the show's scenes and cast first; if any
+     * row is invalid nothing is saved and each bad row is reported. Otherwise
+     * all rows are upserted as one JDBC batch in a single transaction
+     * 
+     * @param showID      The show ID
+     * @param assignments Scene-by-character rows, using the addSceneDetails
+     *                    field names
+     * @return Number of rows saved, or the rejected rows
+     */
+    @PostMapping("/bulkSceneDetails")
+    public ResponseEntity<Map<String, Object>> bulkSceneDetails(
+            @RequestParam String showID,
+            @RequestBody List<SceneAssignment> assignments) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        if (assignments.size() > MAX_BULK_ROWS) {
+            response.put("status", "error");
+            response.put("message", "At most " + MAX_BULK_ROWS + " rows can be sent at once");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+
+        try {
+            int showIdInt = Integer.parseInt(showID);
+
+            // Validated and saved under the show's lock, so a row checked here
+            // cannot be taken by another request before the batch commits
+            return castingConflicts.locked(showIdInt,
+                    () -> saveSceneDetails(showIdInt, assignments, response));
+
+        } catch (NumberFormatException e) {
+            response.put("status", "error");
+            response.put("message", "showID must be a number");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+
+        } catch (DataIntegrityViolationException e) {
+            // A scene or character was removed between the check and the insert
+            String message = e.getRootCause() != null ? e.getRootCause().getMessage() : e.getMessage();
+            response.put("status", "error");
+            response.put("message", "Nothing was saved: " + message);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+
+        } catch (DataAccessException e) {
+            System.err.println("Error saving bulk scene details: " + e.getMessage());
+            response.put("status", "error");
+            response.put("message", "Error saving scene details: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Validates and saves the rows of a bulkSceneDetails request
+     * 
+     * @param showIdInt   The show ID
+     * @param assignments The rows to save
+     * @param response    The response body to fill in
+     * @return Number of rows saved, or the rejected rows
+     */
+    private ResponseEntity<Map<String, Object>> saveSceneDetails(int showIdInt,
+            List<SceneAssignment> assignments, Map<String, Object> response) {
+        Set<String> scenes = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT scenename FROM scene WHERE showid = ?", String.class, showIdInt));
+        Set<List<String>> cast = new HashSet<>(jdbcTemplate.query(
+                "SELECT charactername, netid FROM characters WHERE showid = ?",
+                (rs, rowNum) -> List.of(rs.getString(1), rs.getString(2)), showIdInt));
+
+        List<RowError> errors = new ArrayList<>();
+        Set<List<String>> seen = new HashSet<>();
+        Map<List<String>, String> onStage = new HashMap<>();
+        List<Object[]> batch = new ArrayList<>(assignments.size());
+
+        for (int i = 0; i < assignments.size(); i++) {
+            SceneAssignment row = assignments.get(i);
+            String error = null;
+
+            if (!StringUtils.hasText(row.sceneName()) || !StringUtils.hasText(row.characterName())
+                    || !StringUtils.hasText(row.netID())) {
+                error = "scenename, charactername and netid are required";
+            } else if (!scenes.contains(row.sceneName())) {
+                error = "Scene '" + row.sceneName() + "' is not in this show";
+            } else if (!cast.contains(List.of(row.characterName(), row.netID()))) {
+                error = "Character '" + row.characterName() + "' played by " + row.netID()
+                        + " is not in this show";
+            } else if (!seen.add(List.of(row.sceneName(), row.characterName(), row.netID()))) {
+                error = "This character is already assigned to this scene earlier in the request";
+            } else {
+                String other = castingConflicts.check(showIdInt, row.netID(), row.characterName(),
+                        row.sceneName());
+                String earlier = onStage.putIfAbsent(List.of(row.netID(), row.sceneName()),
+                        row.characterName());
+                if (other == null && earlier != null) {
+                    other = earlier;
+                }
+                if (other != null) {
+                    error = row.netID() + " is already in scene '" + row.sceneName() + "' as " + other;
+                }
+            }
+
+            if (error != null) {
+                errors.add(new RowError(i, error));
+            } else {
+                batch.add(new Object[] { row.sceneName(), row.characterName(), row.netID(), showIdInt,
+                        row.costumeChange(), row.costumeWorn(), row.characterLocation(),
+                        row.changeLocation(), row.changeTime(), row.notes() });
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            response.put("status", "error");
+            response.put("message", errors.size() + " of " + assignments.size()
+                    + " rows were rejected; nothing was saved");
+            response.put("errors", errors);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+
+        // Standard MERGE rather than ON CONFLICT, so the same statement runs
+        // on PostgreSQL 15+ and on H2 in the tests
+        String sql = """
+                MERGE INTO character_in_scene c
+                USING (VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)) AS r
+                    (scenename, charactername, netid, showid, costumechange, costumeworn,
+                     characterlocation, changelocation, changelengthoftime, additionalnotes)
+                ON c.showid = r.showid AND c.scenename = r.scenename
+                    AND c.charactername = r.charactername AND c.netid = r.netid
+                WHEN MATCHED THEN UPDATE
+                SET costumechange = r.costumechange, costumeworn = r.costumeworn,
+                    characterlocation = r.characterlocation, changelocation = r.changelocation,
+                    changelengthoftime = r.changelengthoftime, additionalnotes = r.additionalnotes
+                WHEN NOT MATCHED THEN INSERT
+                    (scenename, charactername, netid, showid, costumechange, costumeworn,
+                     characterlocation, changelocation, changelengthoftime, additionalnotes)
+                VALUES (r.scenename, r.charactername, r.netid, r.showid, r.costumechange, r.costumeworn,
+                    r.characterlocation, r.changelocation, r.changelengthoftime, r.additionalnotes)
+                """;
+
+        // Without a transaction each statement in the batch would commit
+        // on its own, and a failure part way through would leave half a set
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+        quickChangeAnalyzer.forget(showIdInt);
+        castingConflicts.forget(showIdInt);
+
+        response.put("status", "success");
+        response.put("message", batch.size() + " scene details saved successfully!");
+        response.put("saved", batch.size());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Edits scene details for a character in a scene
      * 
@@ -521,6 +855,7 @@ public class showRestController {
                     changetime, notes, scenename, charactername, netid, showIdInt);
 
             if (rowsAffected > 0) {
+                quickChangeAnalyzer.actorChanged(showIdInt, netid);
                 response.put("status", "success");
                 response.put("message", "Scene details updated successfully!");
                 return ResponseEntity.ok(response);
@@ -556,6 +891,8 @@ public class showRestController {
             int rowsAffected = jdbcTemplate.update(sql, sceneName, showIdInt);
 
             if (rowsAffected > 0) {
+                quickChangeAnalyzer.forget(showIdInt);
+                castingConflicts.forget(showIdInt);
                 return ResponseEntity.ok("Scene deleted successfully.");
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Scene not found.");
@@ -581,6 +918,8 @@ public class showRestController {
             int rowsAffected = jdbcTemplate.update(sql, scenename, charactername, netid, showIdInt);
 
             if (rowsAffected > 0) {
+                quickChangeAnalyzer.actorChanged(showIdInt, netid);
+                castingConflicts.placed(showIdInt, netid, charactername, scenename, false);
                 return ResponseEntity.ok("Scene details deleted successfully.");
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Scene details not found.");
@@ -1,5 +1,9 @@
 package com.creighton_theater.theater_database;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -10,6 +14,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST Controller for Student entity operations
@@ -25,33 +31,94 @@ public class studentRestController {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private JsonRowStreamer jsonRowStreamer;
+
+    @Autowired
+    private SubstringSearch substringSearch;
+
+    @Autowired
+    private CsvImporter csvImporter;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private StudentProfileLoader studentProfileLoader;
+
     /**
-     * Retrieves all students from the database
-     * 
-     * @return List of all students with their information
+     * Retrieves one page of students from the database
+     * Keyset-paginated on (lastname, firstname, netid); the next page's cursor
+     * is returned in the X-Next-Cursor header
+     *
+     * @param cursor Continuation token from the previous page (optional)
+     * @param limit  Page size, capped at PageCursor.MAX_PAGE_SIZE (optional)
+     * @return One page of students with their information
      */
     @GetMapping("/getAll")
-    public ResponseEntity<List<Map<String, Object>>> getAllStudents() {
+    @ReadsTables({"student"})
+    public ResponseEntity<List<Student>> getAllStudents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            String sql = "SELECT * FROM student ORDER BY lastname, firstname";
-            List<Map<String, Object>> students = jdbcTemplate.queryForList(sql);
-            return ResponseEntity.ok(students);
+            int pageSize = PageCursor.pageSize(limit);
+            List<Student> students;
+
+            if (cursor == null || cursor.isEmpty()) {
+                String sql = """
+                        SELECT %s
+                        FROM student
+                        ORDER BY lastname, firstname, netid
+                        LIMIT ?
+                        """.formatted(Student.COLUMNS);
+                students = jdbcTemplate.query(sql, Student.MAPPER, pageSize + 1);
+            } else {
+                String[] after = PageCursor.decode(cursor, 3);
+                String sql = """
+                        SELECT %s
+                        FROM student
+                        WHERE (lastname, firstname, netid) > (?, ?, ?)
+                        ORDER BY lastname, firstname, netid
+                        LIMIT ?
+                        """.formatted(Student.COLUMNS);
+                students = jdbcTemplate.query(sql, Student.MAPPER, after[0], after[1], after[2], pageSize + 1);
+            }
+
+            return PageCursor.page(students, pageSize,
+                    s -> new Object[] { s.lastName(), s.firstName(), s.netID() });
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
         } catch (DataAccessException e) {
             System.err.println("Error fetching all students: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
+    /**
+     * Streams every student as a JSON array
+     * Rows are written as they are fetched instead of being collected first
+     * 
+     * @return All students ordered by name
+     */
+    @GetMapping("/streamAll")
+    @ReadsTables({"student"})
+    public ResponseEntity<StreamingResponseBody> streamAllStudents() {
+        return jsonRowStreamer.stream(
+                "SELECT " + Student.COLUMNS + " FROM student ORDER BY lastname, firstname, netid",
+                Student.MAPPER);
+    }
+
     /**
      * Filters students by a specific column and value
      * Uses parameterized queries to prevent SQL injection
      * 
      * @param column The column name to filter by
-     * @param value  The value to search for (supports partial matches with LIKE)
+     * @param value  The value to search for (case-insensitive partial match)
      * @return List of students matching the filter criteria
      */
     @GetMapping("/filterBy")
-    public ResponseEntity<List<Map<String, Object>>> filterBy(
+    @ReadsTables({"student"})
+    public ResponseEntity<List<Student>> filterBy(
             @RequestParam String column,
             @RequestParam String value) {
 
@@ -61,13 +128,16 @@ public class studentRestController {
                     "netid", "firstname", "lastname", "gradelevel",
                     "pronouns", "specialnotes", "email", "allergies_sensitivities");
 
+            column = column.toLowerCase();
             if (!allowedColumns.contains(column)) {
                 return ResponseEntity.badRequest().body(null);
             }
 
             // Use parameterized query - column name is validated above
-            String sql = String.format("SELECT * FROM student WHERE %s LIKE ? ORDER BY lastname, firstname", column);
-            List<Map<String, Object>> students = jdbcTemplate.queryForList(sql, "%" + value + "%");
+            SubstringSearch.Predicate match = substringSearch.contains("", "student", column, value);
+            String sql = String.format("SELECT %s FROM student WHERE %s ORDER BY lastname, firstname",
+                    Student.COLUMNS, match.sql());
+            List<Student> students = jdbcTemplate.query(sql, Student.MAPPER, match.args());
 
             return ResponseEntity.ok(students);
         } catch (DataAccessException e) {
@@ -78,14 +148,16 @@ public class studentRestController {
 
     /**
      * Searches for students by a specific field
-     * Used for autocomplete functionality
+     * Used for autocomplete functionality; answered from the in-memory
+     * AutocompleteIndex without a database round trip
      * 
-     * @param value    The search value
+     * @param value    The start of the field's value
      * @param searchBy The field to search by (netid, firstname, lastname)
-     * @return List of students matching the search
+     * @return Up to 10 students whose field starts with value
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Map<String, Object>>> searchStudents(
+    @ReadsTables({"student"})
+    public ResponseEntity<List<StudentSummary>> searchStudents(
             @RequestParam String value,
             @RequestParam String searchBy) {
 
@@ -93,15 +165,13 @@ public class studentRestController {
             // Whitelist allowed columns
             List<String> allowedColumns = List.of("netid", "firstname", "lastname");
 
+            // The forms send camelCase field names (netID, firstName, lastName)
+            searchBy = searchBy.toLowerCase();
             if (!allowedColumns.contains(searchBy)) {
                 return ResponseEntity.badRequest().body(null);
             }
 
-            String sql = String.format(
-                    "SELECT netid, firstname, lastname FROM student WHERE %s LIKE ? ORDER BY lastname, firstname LIMIT 10",
-                    searchBy);
-
-            List<Map<String, Object>> students = jdbcTemplate.queryForList(sql, "%" + value + "%");
+            List<StudentSummary> students = autocompleteIndex.students(searchBy, value);
             return ResponseEntity.ok(students);
 
         } catch (DataAccessException e) {
@@ -118,7 +188,8 @@ public class studentRestController {
      * @return List of shows with character information
      */
     @GetMapping("/getShows")
-    public ResponseEntity<List<Map<String, Object>>> getStudentShows(@RequestParam String netID) {
+    @ReadsTables({"shows", "characters"})
+    public ResponseEntity<List<StudentShow>> getStudentShows(@RequestParam String netID) {
         try {
             // PostgreSQL uses string_agg instead of GROUP_CONCAT
             String sql = """
@@ -136,7 +207,7 @@ public class studentRestController {
                     ORDER BY s.yearsemester DESC, s.showname
                     """;
 
-            List<Map<String, Object>> shows = jdbcTemplate.queryForList(sql, netID);
+            List<StudentShow> shows = jdbcTemplate.query(sql, StudentShow.MAPPER, netID);
             return ResponseEntity.ok(shows);
 
         } catch (DataAccessException e) {
@@ -145,6 +216,36 @@ public class studentRestController {
         }
     }
 
+    /**
+     * Retrieves a student's whole profile in one document: the student, their
+     * actor and crew profiles, characters played, crew jobs and previous
+     * roles
+     * The parts are queried concurrently under one deadline; parts that miss
+     * it are listed in incomplete. Not ETagged, since a response can be partial
+     * 
+     * @param netID The student's netID
+     * @return The profile, 404 if there is no such student, or 504 if the
+     *         student could not be read in time
+     */
+    @GetMapping("/{netID}/profile")
+    public ResponseEntity<StudentProfile> getProfile(@PathVariable String netID) {
+        try {
+            StudentProfile profile = studentProfileLoader.load(netID);
+            if (profile == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+            }
+            return ResponseEntity.ok(profile);
+
+        } catch (StudentProfileLoader.ProfileTimeoutException e) {
+            System.err.println("Error loading student profile: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(null);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(null);
+        }
+    }
+
     /**
      * Adds a new student to the database
      * 
@@ -193,6 +294,43 @@ public class studentRestController {
         }
     }
 
+    /**
+     * Imports students from an uploaded CSV file
+     * The first line names the columns: netid, firstname, lastname and
+     * gradelevel are required, pronouns, specialnotes, email and
+     * allergies_sensitivities are optional. Students already in the database
+     * are updated
+     * Lines that fail validation are skipped and reported, the rest are saved
+     * 
+     * @param file The CSV file
+     * @return Number of students imported and the rejected lines
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importStudents(@RequestParam MultipartFile file) {
+        Map<String, Object> response = new HashMap<>();
+
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            CsvImporter.Result result = csvImporter.importStudents(reader);
+            response.put("status", result.errors().isEmpty() ? "success" : "partial");
+            response.put("message", result.imported() + " students imported, "
+                    + result.errors().size() + " lines rejected");
+            response.put("imported", result.imported());
+            response.put("errors", result.errors());
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException | IOException e) {
+            response.put("status", "error");
+            response.put("message", "Cannot import file: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+
+        } catch (DataAccessException e) {
+            System.err.println("Error importing students: " + e.getMessage());
+            response.put("status", "error");
+            response.put("message", "Error importing students: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     /**
      * Edits an existing student's information
      * Allows changing the netID (primary key)
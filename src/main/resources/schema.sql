@@ -55,6 +55,7 @@ CREATE TABLE IF NOT EXISTS "shows" (
   "yearSemester" VARCHAR(45),
   "genre" VARCHAR(45),
   "playWright" VARCHAR(45),
+  "director" VARCHAR(45),
   CONSTRAINT "pk_shows" PRIMARY KEY ("showID")
 );
 -- -----------------------------------------------------
@@ -96,6 +97,7 @@ CREATE TABLE IF NOT EXISTS "scene" (
   "song" VARCHAR(45),
   "bookScriptPages" VARCHAR(45),
   "crewNetID" VARCHAR(8),
+  "crewInShow" VARCHAR(45),
   CONSTRAINT "pk_scene" PRIMARY KEY ("showID", "sceneName"),
   CONSTRAINT "fk_scene_show" FOREIGN KEY ("showID") REFERENCES "shows" ("showID") ON DELETE CASCADE ON UPDATE CASCADE
 );
@@ -140,4 +142,30 @@ CREATE TABLE IF NOT EXISTS "previous_roles" (
   CONSTRAINT "pk_previous_roles" PRIMARY KEY ("netID", "showID"),
   CONSTRAINT "fk_previous_roles_student" FOREIGN KEY ("netID") REFERENCES "student" ("netID") ON DELETE CASCADE ON UPDATE CASCADE,
   CONSTRAINT "fk_previous_roles_show" FOREIGN KEY ("showID") REFERENCES "shows" ("showID") ON DELETE CASCADE ON UPDATE CASCADE
-);
\ No newline at end of file
+);
+-- -----------------------------------------------------
+-- Index for keyset pagination of the student, actor and crew lists
+-- -----------------------------------------------------
+CREATE INDEX IF NOT EXISTS "idx_student_name" ON "student" ("lastName", "firstName", "netID");
+-- -----------------------------------------------------
+-- Trigram indexes for the case-insensitive substring search (ILIKE '%...%')
+-- used by the filterBy and search endpoints
+-- -----------------------------------------------------
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS "idx_student_netID_trgm" ON "student" USING gin ("netID" gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS "idx_student_firstName_trgm" ON "student" USING gin ("firstName" gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS "idx_student_lastName_trgm" ON "student" USING gin ("lastName" gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS "idx_student_gradeLevel_trgm" ON "student" USING gin ("gradeLevel" gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS "idx_student_pronouns_trgm" ON "student" USING gin ("pronouns" gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS "idx_student_specialNotes_trgm" ON "student" USING gin ("specialNotes" gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS "idx_student_email_trgm" ON "student" USING gin ("email" gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS "idx_student_allergies_trgm" ON "student" USING gin ("allergies_sensitivities" gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS "idx_actor_netID_trgm" ON "actor" USING gin ("netID" gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS "idx_crew_crewID_trgm" ON "crew" USING gin ("crewID" gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS "idx_shows_showName_trgm" ON "shows" USING gin ("showName" gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS "idx_shows_yearSemester_trgm" ON "shows" USING gin ("yearSemester" gin_trgm_ops);
+-- -----------------------------------------------------
+-- Index for per-actor lookups of scene appearances; per-scene lookups use
+-- the ("showID", "sceneName", ...) primary key
+-- -----------------------------------------------------
+CREATE INDEX IF NOT EXISTS "idx_character_in_scene_netID" ON "character_in_scene" ("netID");
@@ -196,7 +196,7 @@ function processFilter() {
   const filterValue = filterInput.value;
   const column = filterColumn.value;
 
-  fetch(
+  fetchData(
     `/actors/filterBy?column=${encodeURIComponent(
       column,
     )}&value=${encodeURIComponent(filterValue)}`,
@@ -120,7 +120,7 @@ function processFilter() {
   params.append("value", value);
   params.append("page", table);
 
-  fetch(`/characters/filterBy?${params.toString()}`)
+  fetchData(`/characters/filterBy?${params.toString()}`)
     .then((response) => response.json())
     .then((data) => {
       populateTable("character-table-body", data, buildCharacterRow);
@@ -291,7 +291,7 @@ function initializeAddCharacterPage() {
   const showInput = document.getElementById("showID");
 
   showInput.addEventListener("input", function () {
-    findShows(this.value, "showname", "show-select", "addCharacterButton");
+    findShows("showname", this.value, "show-select", "addCharacterButton");
   });
 }
 
@@ -306,7 +306,7 @@ function initializeEditCharacterPage() {
 
   if (characterName && showID && netID) {
     // Fetch character data and populate form
-    fetch(
+    fetchData(
       `/characters/getCharacter?characterName=${encodeURIComponent(
         characterName,
       )}&showID=${encodeURIComponent(showID)}&netID=${encodeURIComponent(
@@ -356,7 +356,7 @@ function initializeEditCharacterPage() {
   const showInput = document.getElementById("showID");
   if (showInput) {
     showInput.addEventListener("input", function () {
-      findShows(this.value, "showname", "show-select", "editCharacterButton");
+      findShows("showname", this.value, "show-select", "editCharacterButton");
     });
   }
 }
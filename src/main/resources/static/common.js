@@ -54,6 +54,19 @@ function appendIfNotEmpty(formData, key, elementId) {
   }
 }
 
+/**
+ * Fetches data from a GET endpoint, letting the browser reuse its copy
+ * The server tags responses with an ETag and "Cache-Control: no-cache", so
+ * the browser always asks first (If-None-Match) and only downloads the body
+ * again when the underlying tables have changed; a 304 is handed back here
+ * as the cached 200 response
+ * @param {string} endpoint - The API endpoint to fetch from
+ * @returns {Promise<Response>} - The (possibly revalidated) response
+ */
+function fetchData(endpoint) {
+  return fetch(endpoint, { cache: "no-cache" });
+}
+
 // ============================================================================
 // TABLE MANAGEMENT
 // ============================================================================
@@ -63,15 +76,20 @@ function appendIfNotEmpty(formData, key, elementId) {
  * @param {string} tableBodyId - The ID of the table body element
  * @param {Array} data - Array of data objects to populate
  * @param {Function} rowBuilder - Function that takes a data item and returns HTML string
+ * @param {boolean} append - Whether to add the rows after the existing ones (next page)
  */
-function populateTable(tableBodyId, data, rowBuilder) {
+function populateTable(tableBodyId, data, rowBuilder, append = false) {
   const tableBody = document.getElementById(tableBodyId);
   if (!tableBody) {
     console.error(`Table body with ID "${tableBodyId}" not found`);
     return;
   }
 
-  tableBody.innerHTML = "";
+  if (!append) {
+    tableBody.innerHTML = "";
+    // A fresh table (e.g. a filter result) no longer continues the old pages
+    delete pagedTables[tableBodyId];
+  }
 
   data.forEach((item) => {
     const row = document.createElement("tr");
@@ -82,26 +100,49 @@ function populateTable(tableBodyId, data, rowBuilder) {
 
 /**
  * Generic function to load data from an endpoint and populate a table
+ * Paginated endpoints return the next page's cursor in the X-Next-Cursor
+ * header; the remaining pages are loaded as the user scrolls
  * @param {string} endpoint - The API endpoint to fetch from
  * @param {string} tableBodyId - The ID of the table body element
  * @param {Function} rowBuilder - Function that takes a data item and returns HTML string
  * @param {Function} errorCallback - Optional callback for error handling
+ * @param {boolean} append - Whether this request is a follow-up page
  */
 function loadTableData(
   endpoint,
   tableBodyId,
   rowBuilder,
   errorCallback = null,
+  append = false,
 ) {
-  fetch(endpoint)
+  return fetchData(endpoint)
     .then((response) => {
       if (!response.ok) {
         throw new Error(`HTTP error! status: ${response.status}`);
       }
-      return response.json();
+      const nextCursor = response.headers.get("X-Next-Cursor");
+      return response.json().then((data) => ({ data, nextCursor }));
     })
-    .then((data) => {
-      populateTable(tableBodyId, data, rowBuilder);
+    .then(({ data, nextCursor }) => {
+      // The table was replaced (e.g. filtered) while this page was loading
+      if (append && !pagedTables[tableBodyId]) return;
+
+      populateTable(tableBodyId, data, rowBuilder, append);
+
+      if (nextCursor) {
+        const nextUrl = new URL(endpoint, window.location.origin);
+        nextUrl.searchParams.set("cursor", nextCursor);
+        pagedTables[tableBodyId] = {
+          nextEndpoint: nextUrl.pathname + nextUrl.search,
+          rowBuilder,
+          errorCallback,
+          loading: false,
+        };
+        // The first page may not fill the window, so check right away too
+        loadNextPages();
+      } else {
+        delete pagedTables[tableBodyId];
+      }
     })
     .catch((error) => {
       console.error(`Error fetching data from ${endpoint}:`, error);
@@ -111,10 +152,49 @@ function loadTableData(
     });
 }
 
+// ============================================================================
+// INFINITE SCROLL
+// ============================================================================
+
+// Tables with more pages to load, keyed by table body ID
+const pagedTables = {};
+
+// How close (in pixels) to the bottom of the page the next page is requested
+const SCROLL_LOAD_THRESHOLD = 300;
+
+/**
+ * Loads the next page of every paginated table once the user has scrolled
+ * near the bottom of the page
+ */
+function loadNextPages() {
+  const nearBottom =
+    window.innerHeight + window.scrollY >=
+    document.body.offsetHeight - SCROLL_LOAD_THRESHOLD;
+  if (!nearBottom) return;
+
+  Object.entries(pagedTables).forEach(([tableBodyId, page]) => {
+    if (page.loading) return;
+    page.loading = true;
+    loadTableData(
+      page.nextEndpoint,
+      tableBodyId,
+      page.rowBuilder,
+      page.errorCallback,
+      true,
+    );
+  });
+}
+
+window.addEventListener("scroll", loadNextPages, { passive: true });
+
 // ============================================================================
 // FILTER/SEARCH FUNCTIONALITY
 // ============================================================================
 
+// The most recent filter request for each table, so late or retried
+// responses never overwrite newer results
+const latestFilter = {};
+
 /**
  * Generic filter function that works with any entity type
  * @param {string} entityType - The entity type (e.g., 'student', 'actor')
@@ -136,10 +216,25 @@ function filterTable(
   params.append("value", filterValue);
 
   const endpoint = `/${entityType}/filterBy?${params.toString()}`;
+  latestFilter[tableBodyId] = endpoint;
 
-  fetch(endpoint)
-    .then((response) => response.json())
+  fetchData(endpoint)
+    .then((response) => {
+      // The server is busy: keep the current rows and try again shortly,
+      // unless the user has typed something else by then
+      if (response.status === 503) {
+        const seconds = parseInt(response.headers.get("Retry-After"), 10) || 1;
+        setTimeout(() => {
+          if (latestFilter[tableBodyId] === endpoint) {
+            filterTable(entityType, filterColumn, filterValue, tableBodyId, rowBuilder);
+          }
+        }, seconds * 1000);
+        return null;
+      }
+      return response.json();
+    })
     .then((data) => {
+      if (data === null || latestFilter[tableBodyId] !== endpoint) return;
       populateTable(tableBodyId, data, rowBuilder);
     })
     .catch((error) => {
@@ -148,6 +243,10 @@ function filterTable(
     });
 }
 
+// Wait for a pause in typing before filtering, so a burst of keystrokes
+// sends one request instead of one per character
+const FILTER_DEBOUNCE_MS = 250;
+
 /**
  * Sets up automatic filter updates when user types in the filter input
  * @param {Function} filterFunction - The function to call when filtering
@@ -155,8 +254,10 @@ function filterTable(
 function setupFilterListener(filterFunction) {
   const filterInput = document.getElementById("filter-input");
   if (filterInput) {
+    let timer = null;
     filterInput.addEventListener("input", () => {
-      filterFunction();
+      clearTimeout(timer);
+      timer = setTimeout(filterFunction, FILTER_DEBOUNCE_MS);
     });
   }
 }
@@ -256,7 +357,7 @@ async function submitForm(
  */
 async function findStudents(searchValue, searchBy, selectId, buttonId) {
   try {
-    const response = await fetch(
+    const response = await fetchData(
       `/student/search?value=${encodeURIComponent(
         searchValue,
       )}&searchBy=${searchBy}`,
@@ -387,7 +488,7 @@ function setupStudentAutocomplete(selectId, buttonId) {
  */
 async function findShows(searchBy, searchValue, selectId, buttonId) {
   try {
-    const response = await fetch(
+    const response = await fetchData(
       `/shows/getShowIDName?searchBy=${searchBy}&searchValue=${encodeURIComponent(
         searchValue,
       )}`,
@@ -518,7 +619,7 @@ function handleDropdownNavigation(selectedValue, routeMap, idValue) {
 
 async function fillInCharacterSelect(showID, selectID, buttonID) {
   try {
-    const response = await fetch(
+    const response = await fetchData(
       `/shows/getCharactersInShow?showID=${encodeURIComponent(showID)}`,
     );
     const data = await response.json();
@@ -71,7 +71,7 @@ function processCrewFilter() {
 
   const filterValue = filterInput.value;
 
-  fetch(`/crew/filterBy?value=${encodeURIComponent(filterValue)}`)
+  fetchData(`/crew/filterBy?value=${encodeURIComponent(filterValue)}`)
     .then((response) => response.json())
     .then((data) => {
       populateTable("crew-table-body", data, buildCrewRow);
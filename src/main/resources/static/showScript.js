@@ -102,25 +102,32 @@ function loadShows() {
 }
 
 /**
- * Loads crew members for a specific show
+ * Fetches a show with its scenes, cast and crew in one request
+ * The crew and scene pages of a show share this response, so moving between
+ * them is answered from the browser cache while nothing has changed
  * @param {string} showID - The show's ID
+ * @returns {Promise<Object>} - The show breakdown document
  */
-function loadCrewShow(showID) {
-  fetch(`/shows/getCrew?showID=${encodeURIComponent(showID)}`)
-    .then((response) => {
-      if (!response.ok) throw new Error("Failed to load crew");
+function fetchShowBreakdown(showID) {
+  return fetchData(`/shows/${encodeURIComponent(showID)}/breakdown`).then(
+    (response) => {
+      if (!response.ok) throw new Error("Failed to load show");
       return response.json();
-    })
-    .then((data) => {
-      if (data.length > 0) {
-        const showName = data[0].showname;
-        const yearSemester = data[0].yearsemester;
+    },
+  );
+}
 
-        document.getElementById("show-title").textContent =
-          `${showName} (${yearSemester}) Crew`;
-      }
+/**
+ * Loads crew members for a specific show
+ * @param {string} showID - The show's ID
+ */
+function loadCrewShow(showID) {
+  fetchShowBreakdown(showID)
+    .then((show) => {
+      document.getElementById("show-title").textContent =
+        `${show.showname} (${show.yearsemester}) Crew`;
 
-      populateTable("showCrew-table-body", data, buildShowCrewRow);
+      populateTable("showCrew-table-body", show.crew, buildShowCrewRow);
     })
     .catch((error) => {
       console.error("Error loading crew:", error);
@@ -128,29 +135,24 @@ function loadCrewShow(showID) {
 }
 
 function loadScenesInShow(showID) {
-  fetch(`/shows/getScenesInShow?showID=${encodeURIComponent(showID)}`)
-    .then((response) => {
-      if (!response.ok) throw new Error("Failed to load scenes");
-      return response.json();
-    })
-    .then((data) => {
-      if (data.length > 0) {
-        const showName = data[0].showname;
-        const yearSemester = data[0].yearsemester;
-
-        document.getElementById("show-title").textContent =
-          `${showName} (${yearSemester}) Scenes`;
-      }
+  fetchShowBreakdown(showID)
+    .then((show) => {
+      document.getElementById("show-title").textContent =
+        `${show.showname} (${show.yearsemester}) Scenes`;
 
-      populateTable("scenes-table-body", data, buildSceneRow);
+      populateTable("scenes-table-body", show.scenes, buildSceneRow);
     })
     .catch((error) => {
       console.error("Error loading scenes:", error);
     });
 }
 
-function loadSceneDetails(sceneName) {
-  fetch(`/shows/getSceneDetails?sceneName=${encodeURIComponent(sceneName)}`)
+function loadSceneDetails(sceneName, showID) {
+  fetchData(
+    `/shows/getSceneDetails?sceneName=${encodeURIComponent(
+      sceneName,
+    )}&showID=${encodeURIComponent(showID)}`,
+  )
     .then((response) => {
       if (!response.ok) throw new Error("Failed to load scene details");
       return response.json();
@@ -198,7 +200,7 @@ function processShowFilter() {
   }
 
   // Otherwise, filter shows
-  fetch(
+  fetchData(
     `/shows/getShowIDName?searchBy=${searchBy}&searchValue=${encodeURIComponent(
       searchValue,
     )}`,
@@ -491,7 +493,7 @@ async function editSceneDetails() {
     "Scene details updated successfully!",
     `/show/sceneDetails?sceneName=${encodeURIComponent(
       document.getElementById("scenename").value,
-    )}`,
+    )}&showID=${encodeURIComponent(document.getElementById("showID").value)}`,
     "edit-scene-details-form",
   );
 }
@@ -516,7 +518,7 @@ function initializeEditScenePage() {
 
   if (sceneName && showID) {
     // Fetch scene data and populate form
-    fetch(`/shows/getScenesInShow?showID=${encodeURIComponent(showID)}`)
+    fetchData(`/shows/getScenesInShow?showID=${encodeURIComponent(showID)}`)
       .then((response) => response.json())
       .then((data) => {
         const scene = data.find((s) => s.scenename === sceneName);
@@ -559,7 +561,11 @@ function initializeEditSceneDetailsPage() {
 
   if (sceneName && characterName && netID && showID) {
     // Fetch scene details and populate form
-    fetch(`/shows/getSceneDetails?sceneName=${encodeURIComponent(sceneName)}`)
+    fetchData(
+      `/shows/getSceneDetails?sceneName=${encodeURIComponent(
+        sceneName,
+      )}&showID=${encodeURIComponent(showID)}`,
+    )
       .then((response) => response.json())
       .then((data) => {
         const detail = data.find(
@@ -111,7 +111,7 @@ function loadStudents() {
  * @param {string} netID - The student's netID
  */
 function loadStudentShows(netID) {
-  fetch(`/student/getShows?netID=${encodeURIComponent(netID)}`)
+  fetchData(`/student/getShows?netID=${encodeURIComponent(netID)}`)
     .then((response) => {
       if (!response.ok) throw new Error("Failed to load student shows");
       return response.json();
@@ -0,0 +1,129 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+class AdmissionControlFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter();
+        ReflectionTestUtils.setField(filter, "registry", registry);
+        ReflectionTestUtils.setField(filter, "poolSize", 10);
+        ReflectionTestUtils.setField(filter, "profileConnections", 3);
+        ReflectionTestUtils.setField(filter, "autocompleteConnections", 2);
+        ReflectionTestUtils.setField(filter, "autocompleteWait", Duration.ZERO);
+        ReflectionTestUtils.setField(filter, "listConnections", 5);
+        ReflectionTestUtils.setField(filter, "listWait", Duration.ZERO);
+        ReflectionTestUtils.setField(filter, "mutationConnections", 0);
+        ReflectionTestUtils.setField(filter, "mutationWait", Duration.ZERO);
+        filter.createBudgets();
+    }
+
+    @Test
+    void profileTakesOnePermitPerParallelQuery() throws Exception {
+        double[] during = new double[1];
+        MockHttpServletResponse response = send("GET", "/student/abc12345/profile",
+                (request, ignored) -> during[0] = active("list"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(during[0]).isEqualTo(3);
+        assertThat(active("list")).isZero();
+    }
+
+    @Test
+    void profileIsRejectedWhenTooFewListPermitsAreLeft() throws Exception {
+        int[] inner = new int[1];
+        // Three lists in flight leave two permits, one short of a profile
+        send("GET", "/student/getAll", (a, b) -> send("GET", "/shows/getAll", (c, d) -> send("GET", "/crew/getAll",
+                (e, f) -> inner[0] = send("GET", "/student/abc12345/profile", (g, h) -> { }).getStatus())));
+
+        assertThat(inner[0]).isEqualTo(503);
+    }
+
+    @Test
+    void mutationsGetWhatAutocompleteAndListLeaveOfThePool() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(3);
+        CountDownLatch admitted = new CountDownLatch(3);
+        CountDownLatch finish = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 3; i++) {
+                threads.submit(() -> send("POST", "/student/add", (request, response) -> {
+                    admitted.countDown();
+                    await(finish);
+                }));
+            }
+            assertThat(admitted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // 10 - 2 - 5 = 3 mutations at once; the fourth is turned away
+            MockHttpServletResponse fourth = send("POST", "/student/add", (request, response) -> { });
+            assertThat(fourth.getStatus()).isEqualTo(503);
+            assertThat(fourth.getHeader("Retry-After")).isEqualTo("1");
+
+            // Reads have their own budget
+            assertThat(send("GET", "/student/getAll", (request, response) -> { }).getStatus()).isEqualTo(200);
+        } finally {
+            finish.countDown();
+            threads.shutdown();
+        }
+        assertThat(threads.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(active("mutation")).isZero();
+    }
+
+    @Test
+    void classifiesByMethodAndPath() {
+        assertThat(AdmissionControlFilter.classify(request("GET", "/actors/filterBy")))
+                .isEqualTo(AdmissionControlFilter.EndpointClass.AUTOCOMPLETE);
+        assertThat(AdmissionControlFilter.classify(request("GET", "/shows/getShowIDName")))
+                .isEqualTo(AdmissionControlFilter.EndpointClass.AUTOCOMPLETE);
+        assertThat(AdmissionControlFilter.classify(request("GET", "/shows/getAll")))
+                .isEqualTo(AdmissionControlFilter.EndpointClass.LIST);
+        assertThat(AdmissionControlFilter.classify(request("DELETE", "/shows/delete")))
+                .isEqualTo(AdmissionControlFilter.EndpointClass.MUTATION);
+    }
+
+    private MockHttpServletResponse send(String method, String path, FilterChain chain)
+            throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, path), response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    private double active(String endpointClass) {
+        return registry.get("theater.admission.active").tag("class", endpointClass).gauge().value();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
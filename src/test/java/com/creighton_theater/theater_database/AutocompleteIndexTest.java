@@ -0,0 +1,78 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class AutocompleteIndexTest {
+
+    private CachingJdbcTemplate jdbcTemplate;
+    private AutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:autocomplete;DB_CLOSE_DELAY=-1");
+
+        TableVersions versions = new TableVersions();
+        jdbcTemplate = new CachingJdbcTemplate(h2, versions, 100, Duration.ofMinutes(1));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS student");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS shows");
+        jdbcTemplate.execute("""
+                CREATE TABLE student (netid VARCHAR(8) PRIMARY KEY, firstname VARCHAR(45), lastname VARCHAR(45))
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE shows (showid INT PRIMARY KEY, showname VARCHAR(45), yearsemester VARCHAR(45),
+                    genre VARCHAR(45), director VARCHAR(45), playwright VARCHAR(45))
+                """);
+        jdbcTemplate.update("INSERT INTO student VALUES ('abc12345', 'Ada', 'Dane'), ('def67890', 'Bo', 'Davis')");
+        jdbcTemplate.update("INSERT INTO shows (showid, showname, yearsemester) VALUES (1, 'Hamlet', '2024 Fall')");
+
+        index = new AutocompleteIndex();
+        ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(index, "tableVersions", versions);
+        index.subscribe();
+        index.load();
+    }
+
+    @Test
+    void findsStudentsByAnyField() {
+        assertThat(index.students("lastname", "da")).extracting(StudentSummary::netID)
+                .containsExactly("abc12345", "def67890");
+        assertThat(index.students("firstname", "b")).extracting(StudentSummary::netID)
+                .containsExactly("def67890");
+        assertThat(index.students("netid", "ABC")).extracting(StudentSummary::netID)
+                .containsExactly("abc12345");
+    }
+
+    @Test
+    void writesAreSeenByTheNextLookup() {
+        index.students("lastname", "da");
+        index.showsByName("ham");
+
+        jdbcTemplate.update("INSERT INTO student VALUES ('ghi13579', 'Cy', 'Dale')");
+        jdbcTemplate.update("INSERT INTO shows (showid, showname, yearsemester) VALUES (2, 'Hair', '2025 Fall')");
+
+        assertThat(index.students("lastname", "da")).extracting(StudentSummary::netID)
+                .containsExactly("ghi13579", "abc12345", "def67890");
+        assertThat(index.showsByName("ha")).extracting(Show::showName).containsExactly("Hair", "Hamlet");
+    }
+
+    @Test
+    void clearingTheCacheDropsBothIndexes() {
+        index.showsByName("ham");
+
+        // As if edited outside the application, then flushed from /cache/clear
+        new JdbcTemplate(jdbcTemplate.getDataSource()).update("UPDATE shows SET showname = 'Macbeth'");
+        jdbcTemplate.invalidateAll();
+
+        assertThat(index.showsByName("ham")).isEmpty();
+        assertThat(index.showsByName("mac")).extracting(Show::showName).containsExactly("Macbeth");
+    }
+}
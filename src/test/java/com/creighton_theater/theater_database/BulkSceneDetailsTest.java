@@ -0,0 +1,165 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * POST /shows/bulkSceneDetails against H2
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class BulkSceneDetailsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CachingJdbcTemplate jdbcTemplate;
+
+    private int showID;
+
+    @BeforeEach
+    void createShow() {
+        jdbcTemplate.update("DELETE FROM shows");
+        jdbcTemplate.update("DELETE FROM student");
+
+        jdbcTemplate.update("INSERT INTO shows (showname, yearsemester) VALUES ('Hamlet', '2025 Fall')");
+        showID = jdbcTemplate.queryForObject("SELECT MAX(showid) FROM shows", Integer.class);
+        for (String netID : new String[] { "abc12345", "def67890" }) {
+            jdbcTemplate.update("""
+                    INSERT INTO student (netid, firstname, lastname, gradelevel, pronouns, specialnotes)
+                    VALUES (?, 'First', 'Last', 'Senior', '', '')
+                    """, netID);
+            jdbcTemplate.update("INSERT INTO actor (netid) VALUES (?)", netID);
+        }
+        jdbcTemplate.update("INSERT INTO scene (showid, scenename) VALUES (?, 'Act 1'), (?, 'Act 2')",
+                showID, showID);
+        jdbcTemplate.update("INSERT INTO characters (showid, charactername, netid) VALUES (?, 'Hamlet', 'abc12345')",
+                showID);
+        jdbcTemplate.update("INSERT INTO characters (showid, charactername, netid) VALUES (?, 'Ophelia', 'def67890')",
+                showID);
+    }
+
+    @Test
+    void savesAndThenUpdatesEveryRow() throws Exception {
+        send("""
+                [{"scenename": "Act 1", "charactername": "Hamlet", "netid": "abc12345", "costumeworn": "Black"},
+                 {"scenename": "Act 1", "charactername": "Ophelia", "netid": "def67890"},
+                 {"scenename": "Act 2", "charactername": "Hamlet", "netid": "abc12345"}]
+                """)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved").value(3));
+        assertThat(rows()).isEqualTo(3);
+
+        // Sending a row again updates it in place
+        send("""
+                [{"scenename": "Act 1", "charactername": "Hamlet", "netid": "abc12345", "costumeworn": "White"}]
+                """)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved").value(1));
+        assertThat(rows()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT costumeworn FROM character_in_scene
+                WHERE showid = ? AND scenename = 'Act 1' AND charactername = 'Hamlet'
+                """, String.class, showID)).isEqualTo("White");
+    }
+
+    @Test
+    void reportsEveryInvalidRowAndSavesNothing() throws Exception {
+        send("""
+                [{"scenename": "Act 1", "charactername": "Hamlet", "netid": "abc12345"},
+                 {"scenename": "Act 3", "charactername": "Hamlet", "netid": "abc12345"},
+                 {"scenename": "Act 1", "charactername": "Ophelia", "netid": "abc12345"},
+                 {"scenename": "Act 1", "charactername": "Hamlet"},
+                 {"scenename": "Act 1", "charactername": "Hamlet", "netid": "abc12345"}]
+                """)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasSize(4)))
+                .andExpect(jsonPath("$.errors[0].row").value(1))
+                .andExpect(jsonPath("$.errors[1].row").value(2))
+                .andExpect(jsonPath("$.errors[2].row").value(3))
+                .andExpect(jsonPath("$.errors[3].row").value(4));
+        assertThat(rows()).isZero();
+    }
+
+    @Test
+    void rollsBackTheWholeBatchWhenOneRowFails() throws Exception {
+        // Passes validation, but is longer than the costumeworn column
+        String tooLong = "x".repeat(100);
+        send("""
+                [{"scenename": "Act 1", "charactername": "Hamlet", "netid": "abc12345"},
+                 {"scenename": "Act 2", "charactername": "Ophelia", "netid": "def67890", "costumeworn": "%s"}]
+                """.formatted(tooLong))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("error"));
+        assertThat(rows()).isZero();
+    }
+
+    @Test
+    void onlyOneOfTwoRacingCastingsGetsTheScene() throws Exception {
+        jdbcTemplate.update("INSERT INTO characters (showid, charactername, netid) VALUES (?, 'Ghost', 'abc12345')",
+                showID);
+
+        // Both requests check the scene at the same time; one must see the other's row
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (String character : new String[] { "Hamlet", "Ghost" }) {
+                statuses.add(threads.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/shows/addSceneDetails")
+                            .param("scenename", "Act 1")
+                            .param("charactername", character)
+                            .param("netid", "abc12345")
+                            .param("showID", Integer.toString(showID)))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> codes = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                codes.add(status.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(codes).containsExactlyInAnyOrder(200, 409);
+            assertThat(rows()).isEqualTo(1);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private ResultActions send(String json) throws Exception {
+        return mockMvc.perform(post("/shows/bulkSceneDetails")
+                .param("showID", Integer.toString(showID))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json));
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM character_in_scene WHERE showid = ?",
+                Integer.class, showID);
+    }
+}
@@ -0,0 +1,91 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class CachingJdbcTemplateTest {
+
+    private TableVersions versions;
+    private CachingJdbcTemplate jdbcTemplate;
+    private TransactionTemplate transaction;
+    private final List<Set<String>> notified = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:caching;DB_CLOSE_DELAY=-1");
+
+        versions = new TableVersions();
+        jdbcTemplate = new CachingJdbcTemplate(h2, versions, 100, Duration.ofMinutes(1));
+        transaction = new TransactionTemplate(new DataSourceTransactionManager(h2));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS shows");
+        jdbcTemplate.execute("CREATE TABLE shows (showid INT PRIMARY KEY, showname VARCHAR(45))");
+        notified.clear();
+
+        versions.subscribe(notified::add, "scene", "student");
+    }
+
+    @Test
+    void writesNotifySubscribersOfTheTablesTheyCascadeInto() {
+        jdbcTemplate.update("INSERT INTO shows VALUES (1, 'Hamlet')");
+
+        assertThat(notified).containsExactly(Set.of("scene"));
+    }
+
+    @Test
+    void writesToOtherTablesNotifyNobody() {
+        jdbcTemplate.invalidate("crew");
+
+        assertThat(notified).isEmpty();
+    }
+
+    @Test
+    void writesInATransactionNotifyOnceItCommits() {
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO shows VALUES (1, 'Hamlet')");
+            jdbcTemplate.update("INSERT INTO shows VALUES (2, 'Macbeth')");
+            assertThat(notified).isEmpty();
+        });
+
+        assertThat(notified).containsExactly(Set.of("scene"), Set.of("scene"));
+    }
+
+    @Test
+    void cachedResultsAreDroppedBeforeSubscribersHear() {
+        List<String> seen = new ArrayList<>();
+        versions.subscribe(tables -> seen.addAll(
+                jdbcTemplate.queryCached("SELECT showname FROM shows", (rs, row) -> rs.getString(1))), "shows");
+        jdbcTemplate.queryCached("SELECT showname FROM shows", (rs, row) -> rs.getString(1));
+
+        jdbcTemplate.update("INSERT INTO shows VALUES (1, 'Hamlet')");
+
+        assertThat(seen).containsExactly("Hamlet");
+    }
+
+    @Test
+    void invalidateAllNotifiesEverySubscriber() {
+        jdbcTemplate.invalidateAll();
+
+        assertThat(notified).containsExactly(Set.of("scene", "student"));
+    }
+
+    @Test
+    void aFailingSubscriberDoesNotFailTheWrite() {
+        versions.subscribe(tables -> {
+            throw new IllegalStateException("boom");
+        }, "shows");
+
+        assertThat(jdbcTemplate.update("INSERT INTO shows VALUES (1, 'Hamlet')")).isEqualTo(1);
+        assertThat(notified).hasSize(1);
+    }
+}
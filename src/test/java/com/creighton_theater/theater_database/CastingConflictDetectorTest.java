@@ -0,0 +1,79 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class CastingConflictDetectorTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TableVersions versions;
+    private CastingConflictDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:conflicts;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(h2);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS character_in_scene");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS scene");
+        jdbcTemplate.execute("CREATE TABLE scene (showid INT, scenename VARCHAR(45), act INT)");
+        jdbcTemplate.execute("""
+                CREATE TABLE character_in_scene (showid INT, scenename VARCHAR(45), charactername VARCHAR(45),
+                    netid VARCHAR(8))
+                """);
+        jdbcTemplate.update("INSERT INTO scene VALUES (1, 'Scene 1', 1), (1, 'Scene 2', 1)");
+        jdbcTemplate.update("INSERT INTO character_in_scene VALUES (1, 'Scene 1', 'Hamlet', 'abc12345')");
+
+        versions = new TableVersions();
+        detector = new CastingConflictDetector();
+        ReflectionTestUtils.setField(detector, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(detector, "tableVersions", versions);
+        detector.subscribe();
+    }
+
+    @Test
+    void findsTheActorsOtherCharacterInTheScene() {
+        assertThat(detector.check(1, "abc12345", "Ghost", "Scene 1")).isEqualTo("Hamlet");
+        assertThat(detector.check(1, "abc12345", "Ghost", "Scene 2")).isNull();
+        assertThat(detector.check(1, "abc12345", "Hamlet", "Scene 1")).isNull();
+    }
+
+    @Test
+    void placedRowsAreCheckedWithoutReloading() {
+        detector.check(1, "abc12345", "Ghost", "Scene 2");
+
+        detector.placed(1, "abc12345", "Ghost", "Scene 2", true);
+        assertThat(detector.check(1, "abc12345", "Hamlet", "Scene 2")).isEqualTo("Ghost");
+
+        detector.placed(1, "abc12345", "Ghost", "Scene 2", false);
+        assertThat(detector.check(1, "abc12345", "Hamlet", "Scene 2")).isNull();
+    }
+
+    @Test
+    void studentWritesDropEveryShow() {
+        detector.check(1, "abc12345", "Ghost", "Scene 1");
+        jdbcTemplate.update("DELETE FROM character_in_scene");
+
+        versions.changed(versions.bump("student"));
+
+        assertThat(detector.check(1, "abc12345", "Ghost", "Scene 1")).isNull();
+    }
+
+    @Test
+    void lockedWorkSeesItsOwnPlacements() {
+        String first = detector.locked(1, () -> {
+            String other = detector.check(1, "abc12345", "Ghost", "Scene 2");
+            detector.placed(1, "abc12345", "Ghost", "Scene 2", true);
+            return other;
+        });
+
+        assertThat(first).isNull();
+        assertThat(detector.locked(1, () -> detector.check(1, "abc12345", "Hamlet", "Scene 2")))
+                .isEqualTo("Ghost");
+    }
+}
@@ -0,0 +1,74 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Header mapping and per-row checks; staging and the merge need COPY, so
+ * they only run against PostgreSQL
+ */
+class CsvImporterTest {
+
+    private static final List<String> STUDENT_HEADER = List.of("NetID", "firstname", "lastname", "gradelevel",
+            "pronouns");
+
+    @Test
+    void mapsHeaderColumnsInAnyOrderAndCase() {
+        int[] sourceIndex = CsvImporter.mapHeader(CsvImporter.STUDENTS,
+                List.of(" LastName ", "netid", "gradelevel", "firstname"));
+
+        assertThat(sourceIndex).startsWith(1, 3, 0, 2);
+        assertThat(sourceIndex).endsWith(-1, -1, -1, -1);
+    }
+
+    @Test
+    void rejectsUnusableHeaders() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> CsvImporter.mapHeader(CsvImporter.STUDENTS, List.of("netid", "firstname")))
+                .withMessage("Missing required column 'lastname'");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> CsvImporter.mapHeader(CsvImporter.ACTORS, List.of("netid", "NETID")))
+                .withMessage("Column 'netid' appears twice in the header");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> CsvImporter.mapHeader(CsvImporter.ACTORS, List.of("netid", "wingspan", "age")))
+                .withMessage("Unknown columns: age, wingspan");
+    }
+
+    @Test
+    void encodesAValidRowAsACopyLine() {
+        Object line = validate(CsvImporter.STUDENTS, STUDENT_HEADER,
+                List.of(" abc12345 ", "Ada", "O\"Neil, Jr", "Senior", ""), 7);
+
+        // Optional students columns are stored as empty strings, then the line number
+        assertThat(line).isEqualTo("\"abc12345\",\"Ada\",\"O\"\"Neil, Jr\",\"Senior\",\"\",\"\",\"\",\"\",7\n");
+    }
+
+    @Test
+    void leavesMissingActorColumnsNull() {
+        Object line = validate(CsvImporter.ACTORS, List.of("netid", "chest"), List.of("abc12345", "36.5"), 2);
+
+        assertThat((String) line).startsWith("\"abc12345\",,,").contains(",\"36.5\",").endsWith(",2\n");
+    }
+
+    @Test
+    void reportsTheFirstProblemOnTheRecordsLine() {
+        assertThat(validate(CsvImporter.STUDENTS, STUDENT_HEADER, List.of("abc12345", " ", "Last", "Senior"), 3))
+                .isEqualTo(new RowError(3, "firstname is required"));
+        assertThat(validate(CsvImporter.STUDENTS, STUDENT_HEADER,
+                List.of("abc123456", "Ada", "Last", "Senior"), 4))
+                .isEqualTo(new RowError(4, "netid is longer than 8 characters"));
+        assertThat(validate(CsvImporter.ACTORS, List.of("netid", "yearsactingexperience"),
+                List.of("abc12345", "2.5"), 5))
+                .isEqualTo(new RowError(5, "yearsactingexperience '2.5' is not a whole number"));
+        assertThat(validate(CsvImporter.ACTORS, List.of("netid", "chest"), List.of("abc12345", "12d"), 6))
+                .isEqualTo(new RowError(6, "chest '12d' is not a number"));
+    }
+
+    private static Object validate(CsvImporter.Target target, List<String> header, List<String> fields, int line) {
+        return CsvImporter.validate(target, CsvImporter.mapHeader(target, header), new CsvReader.Record(line, fields));
+    }
+}
@@ -0,0 +1,59 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+
+    @Test
+    void splitsPlainFields() throws IOException {
+        assertThat(read("netid,firstname\nabc12345,Ada\n")).containsExactly(
+                new CsvReader.Record(1, List.of("netid", "firstname")),
+                new CsvReader.Record(2, List.of("abc12345", "Ada")));
+    }
+
+    @Test
+    void unquotesCommasDoubledQuotesAndLineBreaks() throws IOException {
+        List<CsvReader.Record> records = read(
+                "\"Last, First\",\"She said \"\"hi\"\"\",\"two\nlines\"\nnext,,\n");
+
+        assertThat(records.get(0).fields()).containsExactly("Last, First", "She said \"hi\"", "two\nlines");
+        // The quoted line break moves the next record to line 3
+        assertThat(records.get(1)).isEqualTo(new CsvReader.Record(3, List.of("next", "", "")));
+    }
+
+    @Test
+    void quotesOnlyOpenAFieldAtItsStart() throws IOException {
+        assertThat(read("5'10\",6\"\n").get(0).fields()).containsExactly("5'10\"", "6\"");
+    }
+
+    @Test
+    void acceptsCrlfAndSkipsBlankLinesAndTheByteOrderMark() throws IOException {
+        assertThat(read("\uFEFFnetid\r\n\r\nabc12345\r\n\nxyz98765")).containsExactly(
+                new CsvReader.Record(1, List.of("netid")),
+                new CsvReader.Record(3, List.of("abc12345")),
+                new CsvReader.Record(5, List.of("xyz98765")));
+    }
+
+    @Test
+    void rejectsAQuotedFieldThatIsNeverClosed() {
+        assertThatIOException().isThrownBy(() -> read("netid\n\"abc12345,Ada\n"))
+                .withMessageContaining("Line 2");
+    }
+
+    private static List<CsvReader.Record> read(String csv) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(csv));
+        List<CsvReader.Record> records = new ArrayList<>();
+        for (CsvReader.Record record = reader.next(); record != null; record = reader.next()) {
+            records.add(record);
+        }
+        return records;
+    }
+}
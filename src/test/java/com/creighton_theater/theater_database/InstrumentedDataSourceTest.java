@@ -0,0 +1,80 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InstrumentedDataSourceTest {
+
+    private SimpleMeterRegistry registry;
+    private InstrumentedDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:instrumented;DB_CLOSE_DELAY=-1");
+
+        registry = new SimpleMeterRegistry();
+        SqlMetrics metrics = new SqlMetrics();
+        ReflectionTestUtils.setField(metrics, "registry", registry);
+        ReflectionTestUtils.setField(metrics, "slowQueryThreshold", Duration.ofSeconds(10));
+
+        dataSource = new InstrumentedDataSource(h2, () -> metrics);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS item");
+        jdbcTemplate.execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(20))");
+    }
+
+    @Test
+    void batchUpdateRunsThroughTheWrapper() {
+        int[][] counts = jdbcTemplate.batchUpdate("INSERT INTO item (id, name) VALUES (?, ?)",
+                List.of(new Object[] { 1, "a" }, new Object[] { 2, "b" }, new Object[] { 3, "c" }), 2,
+                (ps, row) -> {
+                    ps.setInt(1, (Integer) row[0]);
+                    ps.setString(2, (String) row[1]);
+                });
+
+        assertThat(counts).hasNumberOfRows(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item", Integer.class)).isEqualTo(3);
+        assertThat(registry.get(SqlMetrics.TIMER)
+                .tag("statement", "INSERT INTO item (id, name) VALUES (?, ...)")
+                .tag("outcome", "success")
+                .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void statementsReturnTheWrappingConnection() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+            assertThat(statement.getConnection()).isSameAs(connection);
+            assertThat(connection.createStatement().getConnection()).isSameAs(connection);
+        }
+    }
+
+    @Test
+    void failedStatementsAreRecordedAsErrors() {
+        jdbcTemplate.update("INSERT INTO item (id, name) VALUES (1, 'a')");
+        try {
+            jdbcTemplate.update("INSERT INTO item (id, name) VALUES (1, 'b')");
+        } catch (RuntimeException expected) {
+            // Duplicate key
+        }
+
+        assertThat(registry.get(SqlMetrics.TIMER)
+                .tag("statement", "INSERT INTO item (id, name) VALUES (?, ...)")
+                .tag("outcome", "error")
+                .timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,114 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class MeasurementIndexTest {
+
+    private CachingJdbcTemplate jdbcTemplate;
+    private MeasurementIndex index;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:measurements;DB_CLOSE_DELAY=-1");
+
+        TableVersions versions = new TableVersions();
+        jdbcTemplate = new CachingJdbcTemplate(h2, versions, 100, Duration.ofMinutes(1));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS actor");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS student");
+        jdbcTemplate.execute("""
+                CREATE TABLE student (netid VARCHAR(8) PRIMARY KEY, firstname VARCHAR(45), lastname VARCHAR(45))
+                """);
+        jdbcTemplate.execute("CREATE TABLE actor (netid VARCHAR(8) PRIMARY KEY, "
+                + MeasurementIndex.MEASUREMENTS.stream().map(column -> column + " DOUBLE")
+                        .collect(Collectors.joining(", "))
+                + ")");
+
+        actor("a1", 36.0, 30.0);
+        actor("a2", 40.0, 30.0);
+        actor("a3", 36.0, null);
+        actor("a4", null, null);
+
+        index = new MeasurementIndex();
+        ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(index, "tableVersions", versions);
+        index.subscribe();
+        index.load();
+    }
+
+    @Test
+    void comparesOnlyTheMeasurementsAnActorHas() {
+        var matches = index.nearest(Map.of("chest", 36.0, "waist", 30.0), Map.of(), 10);
+
+        assertThat(matches).extracting(MeasurementMatch::netID).containsExactly("a1", "a3", "a2");
+        assertThat(matches.get(1).compared()).isEqualTo(1);
+        assertThat(matches.get(1).missing()).isEqualTo(1);
+        // Weighted mean over the measurements compared: sqrt((16 + 0) / 2)
+        assertThat(matches.get(2).distance()).isCloseTo(Math.sqrt(8), within(1e-9));
+    }
+
+    @Test
+    void weightsScaleEachMeasurement() {
+        var chestOnly = index.nearest(Map.of("chest", 36.0, "waist", 34.0), Map.of("waist", 0.0), 10);
+        assertThat(chestOnly).extracting(MeasurementMatch::netID).containsExactly("a1", "a3", "a2");
+        assertThat(chestOnly.get(2).distance()).isCloseTo(4.0, within(1e-9));
+
+        // a3 has nothing left with any weight, so it is not comparable at all
+        var waistOnly = index.nearest(Map.of("chest", 36.0, "waist", 34.0), Map.of("chest", 0.0), 10);
+        assertThat(waistOnly).extracting(MeasurementMatch::netID).containsExactly("a1", "a2");
+    }
+
+    @Test
+    void keepsTheClosestKInOrder() {
+        for (int i = 0; i < 10; i++) {
+            actor("b" + i, 50.0 + (i * 7) % 10, null);
+        }
+        index.refresh();
+
+        var matches = index.nearest(Map.of("chest", 50.0), Map.of(), 3);
+
+        // (i * 7) % 10 is 0, 1, 2 for i = 0, 3, 6
+        assertThat(matches).extracting(MeasurementMatch::netID).containsExactly("b0", "b3", "b6");
+        assertThat(matches).extracting(MeasurementMatch::distance).containsExactly(0.0, 1.0, 2.0);
+    }
+
+    @Test
+    void removingAnActorMovesTheLastRowIntoItsPlace() {
+        // a1 is row 0 and a4 the last row, so a4 takes row 0
+        index.updatingActor("a1", () -> jdbcTemplate.update("DELETE FROM actor WHERE netid = 'a1'"));
+        index.updatingActor("a4", () -> jdbcTemplate.update(
+                "UPDATE actor SET chest = 36, waist = 30 WHERE netid = 'a4'"));
+        // Updated in place rather than left for a reload
+        assertThat(ReflectionTestUtils.getField(index, "loaded")).isEqualTo(true);
+
+        var matches = index.nearest(Map.of("chest", 36.0, "waist", 30.0), Map.of(), 10);
+
+        assertThat(matches).extracting(MeasurementMatch::netID).containsExactly("a4", "a3", "a2");
+        assertThat(matches.get(0).compared()).isEqualTo(2);
+    }
+
+    @Test
+    void otherWritesAreSeenByTheNextSearch() {
+        jdbcTemplate.update("UPDATE actor SET chest = 36, waist = 30");
+        assertThat(ReflectionTestUtils.getField(index, "loaded")).isEqualTo(false);
+
+        var matches = index.nearest(Map.of("chest", 36.0, "waist", 30.0), Map.of(), 10);
+
+        assertThat(matches).hasSize(4).allSatisfy(match -> assertThat(match.distance()).isZero());
+    }
+
+    private void actor(String netID, Double chest, Double waist) {
+        jdbcTemplate.update("INSERT INTO student VALUES (?, 'First', 'Last')", netID);
+        jdbcTemplate.update("INSERT INTO actor (netid, chest, waist) VALUES (?, ?, ?)", netID, chest, waist);
+    }
+}
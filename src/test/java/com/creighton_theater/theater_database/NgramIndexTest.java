@@ -0,0 +1,43 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class NgramIndexTest {
+
+    private final NgramIndex index = new NgramIndex(
+            List.of("abc12345", "def67890", "ghi13579"),
+            List.of("Hamlet", "Ophelia", "Polonius"));
+
+    @Test
+    void findsSubstringsIgnoringCase() {
+        assertThat(index.search("AML")).containsExactly("abc12345");
+        assertThat(index.search("oni")).containsExactly("ghi13579");
+        assertThat(index.search("hamlet")).containsExactly("abc12345");
+    }
+
+    @Test
+    void shortQueriesScanEveryValue() {
+        assertThat(index.search("l")).containsExactly("abc12345", "def67890", "ghi13579");
+        assertThat(index.search("")).hasSize(3);
+    }
+
+    @Test
+    void everyTrigramMustMatchInOrder() {
+        // "ame" and "let" are both in Hamlet, but not as one substring
+        assertThat(index.search("amelet")).isEmpty();
+        assertThat(index.search("xyz")).isEmpty();
+    }
+
+    @Test
+    void keepsIndexedOrderWhenSeveralMatch() {
+        NgramIndex names = new NgramIndex(List.of(3, 1, 2), List.of("Anna Lee", "Lee Ann", "Leeann"));
+
+        assertThat(names.search("lee")).containsExactly(3, 1, 2);
+        assertThat(names.search("ann")).containsExactly(3, 1, 2);
+        assertThat(names.search("a l")).containsExactly(3);
+    }
+}
@@ -0,0 +1,79 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripsTheSortKey() {
+        String token = PageCursor.encode("Dane", "Ada", "abc12345");
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(PageCursor.decode(token, 3)).containsExactly("Dane", "Ada", "abc12345");
+    }
+
+    @Test
+    void keepsEmptyNullAndNonAsciiValues() {
+        String token = PageCursor.encode("Zoë", null, "", 42);
+
+        assertThat(PageCursor.decode(token, 4)).containsExactly("Zoë", "", "", "42");
+    }
+
+    @Test
+    void rejectsTokensThatAreNotBase64() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.decode("not a cursor!", 3));
+    }
+
+    @Test
+    void rejectsTokensWithTheWrongNumberOfKeys() {
+        String twoKeys = PageCursor.encode("Dane", "Ada");
+        String tampered = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("Dane\u001FAda\u001Fabc\u001Fextra".getBytes(StandardCharsets.UTF_8));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.decode(twoKeys, 3));
+        assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.decode(tampered, 3));
+        assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.decode("", 3));
+    }
+
+    @Test
+    void clampsThePageSize() {
+        assertThat(PageCursor.pageSize(null)).isEqualTo(PageCursor.DEFAULT_PAGE_SIZE);
+        assertThat(PageCursor.pageSize(0)).isEqualTo(PageCursor.DEFAULT_PAGE_SIZE);
+        assertThat(PageCursor.pageSize(-5)).isEqualTo(PageCursor.DEFAULT_PAGE_SIZE);
+        assertThat(PageCursor.pageSize(20)).isEqualTo(20);
+        assertThat(PageCursor.pageSize(10_000)).isEqualTo(PageCursor.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void onlyFullPagesGetANextCursor() {
+        ResponseEntity<List<Integer>> last = PageCursor.page(List.of(1, 2), 2, n -> new Object[] { n });
+        assertThat(last.getBody()).containsExactly(1, 2);
+        assertThat(last.getHeaders().containsKey(PageCursor.NEXT_CURSOR_HEADER)).isFalse();
+
+        ResponseEntity<List<Integer>> more = PageCursor.page(List.of(1, 2, 3), 2, n -> new Object[] { n });
+        assertThat(more.getBody()).containsExactly(1, 2);
+        assertThat(PageCursor.decode(more.getHeaders().getFirst(PageCursor.NEXT_CURSOR_HEADER), 1))
+                .containsExactly("2");
+    }
+
+    @Test
+    void aTamperedCursorIsABadRequest() throws Exception {
+        String tampered = PageCursor.encode("Dane", "Ada");
+
+        // Rejected before the database is touched, so no template is needed
+        MockMvcBuilders.standaloneSetup(new studentRestController()).build()
+                .perform(get("/student/getAll").param("cursor", tampered))
+                .andExpect(status().isBadRequest());
+    }
+}
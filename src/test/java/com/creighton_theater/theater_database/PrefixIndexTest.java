@@ -0,0 +1,57 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class PrefixIndexTest {
+
+    private final PrefixIndex<String> names = new PrefixIndex<>(
+            List.of("Dane", "dawson", "Davis", "Ball", "Dale"), name -> name, Comparator.reverseOrder());
+
+    @Test
+    void returnsPrefixMatchesInDisplayOrder() {
+        assertThat(names.startingWith("da", 10)).containsExactly("dawson", "Davis", "Dane", "Dale");
+        assertThat(names.startingWith("DAV", 10)).containsExactly("Davis");
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        assertThat(names.startingWith("d", 2)).containsExactly("dawson", "Davis");
+    }
+
+    @Test
+    void emptyPrefixMatchesEverything() {
+        assertThat(names.startingWith("", 10)).containsExactly("dawson", "Davis", "Dane", "Dale", "Ball");
+    }
+
+    @Test
+    void missingPrefixesMatchNothing() {
+        assertThat(names.startingWith("e", 10)).isEmpty();
+        assertThat(names.startingWith("dawsons", 10)).isEmpty();
+        assertThat(new PrefixIndex<String>(List.of(), name -> name, Comparator.naturalOrder())
+                .startingWith("a", 10)).isEmpty();
+    }
+
+    @Test
+    void itemsWithoutAKeyAreLeftOut() {
+        PrefixIndex<String> index = new PrefixIndex<>(List.of("a1", "b", "a2"),
+                item -> item.startsWith("a") ? item : null, Comparator.naturalOrder());
+
+        assertThat(index.startingWith("", 10)).containsExactly("a1", "a2");
+    }
+
+    @Test
+    void firstKOfAWideRangeMatchSortingTheRange() {
+        // Key order and display order disagree, so the sparse table has to do the work
+        List<Integer> numbers = IntStream.range(0, 1000).boxed().toList();
+        PrefixIndex<Integer> index = new PrefixIndex<>(numbers, n -> "n" + n, Comparator.comparingInt(n -> -n));
+
+        assertThat(index.startingWith("n1", 5)).containsExactly(199, 198, 197, 196, 195);
+        assertThat(index.startingWith("n", 3)).containsExactly(999, 998, 997);
+    }
+}
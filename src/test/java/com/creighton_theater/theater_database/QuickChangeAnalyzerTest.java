@@ -0,0 +1,122 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class QuickChangeAnalyzerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TableVersions versions;
+    private QuickChangeAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:quickchange;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(h2);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS character_in_scene");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS scene");
+        jdbcTemplate.execute("CREATE TABLE scene (showid INT, scenename VARCHAR(45), act INT)");
+        jdbcTemplate.execute("""
+                CREATE TABLE character_in_scene (showid INT, scenename VARCHAR(45), charactername VARCHAR(45),
+                    netid VARCHAR(8), costumechange VARCHAR(45), costumeworn VARCHAR(45),
+                    changelocation VARCHAR(45), changelengthoftime VARCHAR(45), crewid VARCHAR(8))
+                """);
+
+        versions = new TableVersions();
+        analyzer = new QuickChangeAnalyzer();
+        ReflectionTestUtils.setField(analyzer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(analyzer, "tableVersions", versions);
+        ReflectionTestUtils.setField(analyzer, "transitionSeconds", 60);
+        analyzer.subscribe();
+
+        jdbcTemplate.update("INSERT INTO scene VALUES (1, 'Scene 1', 1), (1, 'Scene 2', 1)");
+        appear("Scene 1", "Black", null);
+        appear("Scene 2", "White", "30s");
+    }
+
+    @Test
+    void findsAQuickChangeBetweenBackToBackScenes() {
+        QuickChangeReport report = analyzer.report(1);
+
+        assertThat(report.changes()).singleElement().satisfies(change -> {
+            assertThat(change.fromScene()).isEqualTo("Scene 1");
+            assertThat(change.toScene()).isEqualTo("Scene 2");
+            assertThat(change.quick()).isTrue();
+            assertThat(change.impossible()).isFalse();
+        });
+    }
+
+    @Test
+    void reloadsWhenARowIsInASceneItHasNotSeen() {
+        analyzer.report(1);
+
+        // Added behind the analyzer's back, so its cached scene order is stale
+        jdbcTemplate.update("INSERT INTO scene VALUES (1, 'Scene 3', 1)");
+        appear("Scene 3", "Red", "2 min");
+        analyzer.actorChanged(1, "abc12345");
+
+        QuickChangeReport report = analyzer.report(1);
+        assertThat(report.changes()).hasSize(2);
+        assertThat(report.changes().get(1).fromScene()).isEqualTo("Scene 2");
+        assertThat(report.changes().get(1).toScene()).isEqualTo("Scene 3");
+        assertThat(report.changes().get(1).impossible()).isTrue();
+    }
+
+    @Test
+    void studentWritesDropEveryReport() {
+        analyzer.report(1);
+        jdbcTemplate.update("UPDATE character_in_scene SET changelengthoftime = '90' WHERE scenename = 'Scene 2'");
+
+        versions.changed(versions.bump("student"));
+
+        assertThat(analyzer.report(1).changes()).singleElement()
+                .satisfies(change -> assertThat(change.impossible()).isTrue());
+    }
+
+    @Test
+    void perShowTablesAreLeftToTheirWriters() {
+        analyzer.report(1);
+        jdbcTemplate.update("UPDATE character_in_scene SET changelengthoftime = '90' WHERE scenename = 'Scene 2'");
+
+        versions.changed(versions.bump("character_in_scene", "scene", "characters"));
+
+        assertThat(analyzer.report(1).changes()).singleElement()
+                .satisfies(change -> assertThat(change.impossible()).isFalse());
+    }
+
+    @Test
+    void readsChangeTimes() {
+        assertThat(QuickChangeAnalyzer.seconds("45")).isEqualTo(45);
+        assertThat(QuickChangeAnalyzer.seconds("45s")).isEqualTo(45);
+        assertThat(QuickChangeAnalyzer.seconds(" 45 Seconds ")).isEqualTo(45);
+        assertThat(QuickChangeAnalyzer.seconds("1:30")).isEqualTo(90);
+        assertThat(QuickChangeAnalyzer.seconds("0:05")).isEqualTo(5);
+        assertThat(QuickChangeAnalyzer.seconds("2 min")).isEqualTo(120);
+        assertThat(QuickChangeAnalyzer.seconds("2 mins.")).isEqualTo(120);
+        assertThat(QuickChangeAnalyzer.seconds("1.5m")).isEqualTo(90);
+        assertThat(QuickChangeAnalyzer.seconds("2.4 sec")).isEqualTo(2);
+    }
+
+    @Test
+    void unreadableChangeTimesAreUnknown() {
+        assertThat(QuickChangeAnalyzer.seconds(null)).isEqualTo(-1);
+        assertThat(QuickChangeAnalyzer.seconds("")).isEqualTo(-1);
+        assertThat(QuickChangeAnalyzer.seconds("quick")).isEqualTo(-1);
+        assertThat(QuickChangeAnalyzer.seconds("1:30:00")).isEqualTo(-1);
+        assertThat(QuickChangeAnalyzer.seconds("2 hours")).isEqualTo(-1);
+    }
+
+    private void appear(String scene, String worn, String time) {
+        jdbcTemplate.update("""
+                INSERT INTO character_in_scene (showid, scenename, charactername, netid, costumeworn,
+                    changelengthoftime)
+                VALUES (1, ?, 'Hamlet', 'abc12345', ?, ?)
+                """, scene, worn, time);
+    }
+}
@@ -0,0 +1,80 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.method.HandlerMethod;
+
+import jakarta.servlet.http.Cookie;
+
+class ReplicaRoutingInterceptorTest {
+
+    private TableVersions versions;
+    private ReplicaRoutingInterceptor interceptor;
+    private HandlerMethod read;
+
+    static class Handler {
+        @GetMapping
+        public String get() {
+            return "";
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        versions = new TableVersions();
+        interceptor = new ReplicaRoutingInterceptor();
+        ReflectionTestUtils.setField(interceptor, "stickiness", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(interceptor, "tableVersions", versions);
+        read = new HandlerMethod(new Handler(), Handler.class.getMethod("get"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.use(null);
+    }
+
+    @Test
+    void aWriteSendsOnlyTheWritersReadsToThePrimary() {
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        interceptor.preHandle(new MockHttpServletRequest("POST", "/student/add"), written, read);
+        assertThat(ReplicaRoutingDataSource.current()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+        assertThat(written.getHeader(HttpHeaders.SET_COOKIE)).startsWith(ReplicaRoutingInterceptor.COOKIE + "=");
+
+        MockHttpServletRequest writer = new MockHttpServletRequest("GET", "/student/getAll");
+        writer.setCookies(new Cookie(ReplicaRoutingInterceptor.COOKIE, "1"));
+        interceptor.preHandle(writer, new MockHttpServletResponse(), read);
+        assertThat(ReplicaRoutingDataSource.current()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/student/getAll"), new MockHttpServletResponse(),
+                read);
+        assertThat(ReplicaRoutingDataSource.current()).isEqualTo(ReplicaRoutingDataSource.Route.REPLICA);
+    }
+
+    @Test
+    void sharedLoadsRunOnThePrimary() {
+        ReplicaRoutingDataSource.use(ReplicaRoutingDataSource.Route.REPLICA);
+
+        assertThat(ReplicaRoutingDataSource.onPrimary(ReplicaRoutingDataSource::current))
+                .isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+        assertThat(ReplicaRoutingDataSource.current()).isEqualTo(ReplicaRoutingDataSource.Route.REPLICA);
+    }
+
+    @Test
+    void onlyRecentlyWrittenTablesAreCatchingUp() {
+        versions.changed(versions.bump("shows"));
+
+        assertThat(interceptor.catchingUp("scene")).isTrue();
+        assertThat(interceptor.catchingUp("student", "crew")).isFalse();
+        assertThat(versions.changedWithin(Duration.ZERO, "shows")).isFalse();
+    }
+}
@@ -0,0 +1,56 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SqlMetricsTest {
+
+    @Test
+    void collapsesWhitespace() {
+        assertThat(SqlMetrics.normalize("""
+                SELECT netid
+                FROM   student
+                WHERE  netid = ?
+                """)).isEqualTo("SELECT netid FROM student WHERE netid = ?");
+    }
+
+    @Test
+    void replacesLiteralValues() {
+        assertThat(SqlMetrics.normalize("SELECT * FROM scene WHERE showid = 12 AND scenename = 'Act 1, ''Opening'''"))
+                .isEqualTo("SELECT * FROM scene WHERE showid = ? AND scenename = ?");
+        assertThat(SqlMetrics.normalize("SELECT * FROM actor WHERE chest > 36.5 LIMIT 101"))
+                .isEqualTo("SELECT * FROM actor WHERE chest > ? LIMIT ?");
+    }
+
+    @Test
+    void leavesDigitsInNamesAlone() {
+        assertThat(SqlMetrics.normalize("SELECT s1.netid FROM student s1"))
+                .isEqualTo("SELECT s1.netid FROM student s1");
+    }
+
+    @Test
+    void inListsOfAnyLengthLookTheSame() {
+        String one = SqlMetrics.normalize("SELECT * FROM student WHERE netid IN (?)");
+        String two = SqlMetrics.normalize("SELECT * FROM student WHERE netid IN (?, ?)");
+        String many = SqlMetrics.normalize("SELECT * FROM student WHERE netid IN ( ?,?, ? , ?)");
+
+        assertThat(two).isEqualTo("SELECT * FROM student WHERE netid IN (?, ...)").isEqualTo(many);
+        assertThat(one).isEqualTo("SELECT * FROM student WHERE netid IN (?)");
+    }
+
+    @Test
+    void multiRowValuesLookLikeOneRow() {
+        assertThat(SqlMetrics.normalize("INSERT INTO item (id, name) VALUES (?, ?)"))
+                .isEqualTo("INSERT INTO item (id, name) VALUES (?, ...)");
+        assertThat(SqlMetrics.normalize("INSERT INTO item (id, name) VALUES (1, 'a'), (2, 'b'), (3, 'c')"))
+                .isEqualTo("INSERT INTO item (id, name) VALUES (?, ...), ...");
+    }
+
+    @Test
+    void capsTheLength() {
+        String normalized = SqlMetrics.normalize("SELECT " + "netid, ".repeat(200) + "netid FROM student");
+
+        assertThat(normalized).hasSize(503).endsWith("...");
+    }
+}
@@ -0,0 +1,118 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * GET /student/{netID}/profile against H2, with slow parts made by putting
+ * a sleeping view in front of a table
+ */
+class StudentProfileTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private StudentProfileLoader loader;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:profile;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(h2);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+
+        // The pg_trgm statements fail on H2
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        schema.setContinueOnError(true);
+        schema.execute(h2);
+        jdbcTemplate.execute("CREATE ALIAS sleep FOR 'java.lang.Thread.sleep(long)'");
+
+        jdbcTemplate.update("""
+                INSERT INTO student (netid, firstname, lastname, gradelevel, pronouns, specialnotes)
+                VALUES ('abc12345', 'First', 'Last', 'Senior', '', '')
+                """);
+
+        loader = new StudentProfileLoader(h2, Duration.ofMillis(300), 3);
+        studentRestController controller = new studentRestController();
+        ReflectionTestUtils.setField(controller, "studentProfileLoader", loader);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        loader.close();
+    }
+
+    @Test
+    void loadsEveryPart() throws Exception {
+        mockMvc.perform(get("/student/abc12345/profile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.student.netid").value("abc12345"))
+                .andExpect(jsonPath("$.incomplete", empty()));
+    }
+
+    @Test
+    void unknownStudentIsNotFound() throws Exception {
+        mockMvc.perform(get("/student/nobody/profile"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void slowPartIsListedAsIncomplete() throws Exception {
+        jdbcTemplate.update("INSERT INTO crew (crewid) VALUES ('abc12345')");
+        slow("crew");
+
+        mockMvc.perform(get("/student/abc12345/profile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.student.netid").value("abc12345"))
+                .andExpect(jsonPath("$.incomplete", contains("crew")));
+    }
+
+    @Test
+    void lateQueriesHandBackTheirConnectionsBeforeTheResponse() throws Exception {
+        jdbcTemplate.update("INSERT INTO crew (crewid) VALUES ('abc12345')");
+        slow("crew");
+
+        mockMvc.perform(get("/student/abc12345/profile"))
+                .andExpect(jsonPath("$.incomplete", contains("crew")));
+
+        // Only this query's own session is left, so AdmissionControlFilter's
+        // permits are not released while the crew query still holds one
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM information_schema.sessions", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void slowStudentIsAGatewayTimeout() throws Exception {
+        slow("student");
+
+        mockMvc.perform(get("/student/abc12345/profile"))
+                .andExpect(status().isGatewayTimeout());
+    }
+
+    /**
+     * Puts a view that sleeps well past the deadline on each row in place
+     * of a table
+     */
+    private void slow(String table) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " RENAME TO " + table + "_data");
+        jdbcTemplate.execute("CREATE VIEW " + table + " AS SELECT * FROM " + table + "_data WHERE sleep(1500) IS NULL");
+    }
+}
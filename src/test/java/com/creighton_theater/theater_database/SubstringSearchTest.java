@@ -0,0 +1,100 @@
+package com.creighton_theater.theater_database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * The in-memory fallback, which is what runs on H2
+ */
+class SubstringSearchTest {
+
+    private CachingJdbcTemplate jdbcTemplate;
+    private SubstringSearch search;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:substring;DB_CLOSE_DELAY=-1");
+
+        TableVersions versions = new TableVersions();
+        jdbcTemplate = new CachingJdbcTemplate(h2, versions, 100, Duration.ofMinutes(1));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS student");
+        jdbcTemplate.execute("CREATE TABLE student (netid VARCHAR(8) PRIMARY KEY, lastname VARCHAR(45))");
+        jdbcTemplate.update("INSERT INTO student VALUES ('abc12345', 'Dane'), ('def67890', 'Polonius')");
+
+        search = new SubstringSearch();
+        ReflectionTestUtils.setField(search, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(search, "tableVersions", versions);
+        search.subscribe();
+    }
+
+    @Test
+    void matchesBecomeAKeyArray() {
+        SubstringSearch.Predicate match = search.contains("s", "student", "lastname", "LON");
+
+        assertThat(match.sql()).isEqualTo("s.netid = ANY(?)");
+        assertThat(match.args()).hasSize(1);
+        assertThat(jdbcTemplate.queryForList("SELECT s.netid FROM student s WHERE " + match.sql(), String.class,
+                match.args())).containsExactly("def67890");
+    }
+
+    @Test
+    void broadMatchesScanInsteadOfListingKeys() {
+        jdbcTemplate.batchUpdate("INSERT INTO student VALUES (?, ?)", IntStream
+                .range(0, SubstringSearch.MAX_KEYS + 500)
+                .mapToObj(i -> new Object[] { "n" + i, "Name" + i })
+                .toList());
+
+        SubstringSearch.Predicate all = search.contains("", "student", "lastname", "am");
+        assertThat(all.sql()).isEqualTo("lastname ILIKE ?");
+        assertThat(matches(all)).hasSize(SubstringSearch.MAX_KEYS + 500);
+
+        // Narrow enough for a key lookup again: Name1000 to Name1099
+        SubstringSearch.Predicate some = search.contains("", "student", "lastname", "name10");
+        assertThat(some.sql()).isEqualTo("netid = ANY(?)");
+        assertThat(matches(some)).hasSize(111);
+    }
+
+    @Test
+    void noMatchesMatchNothing() {
+        assertThat(search.contains("", "student", "lastname", "xyz").sql()).isEqualTo("1 = 0");
+        assertThat(search.contains("", "student", "lastname", "").sql()).isEqualTo("lastname IS NOT NULL");
+    }
+
+    @Test
+    void writesToTheTableDropItsIndex() {
+        assertThat(matches(search.contains("", "student", "lastname", "ane"))).containsExactly("abc12345");
+
+        jdbcTemplate.update("INSERT INTO student VALUES ('ghi13579', 'Lane')");
+
+        assertThat(matches(search.contains("", "student", "lastname", "ane")))
+                .containsExactlyInAnyOrder("abc12345", "ghi13579");
+    }
+
+    @Test
+    void clearingTheCacheDropsEveryIndex() {
+        search.contains("", "student", "lastname", "ane");
+
+        // As if edited outside the application, then flushed from /cache/clear
+        new JdbcTemplate(jdbcTemplate.getDataSource())
+                .update("UPDATE student SET lastname = 'Crane' WHERE netid = 'def67890'");
+        jdbcTemplate.invalidateAll();
+
+        assertThat(matches(search.contains("", "student", "lastname", "ane")))
+                .containsExactlyInAnyOrder("abc12345", "def67890");
+    }
+
+    private List<String> matches(SubstringSearch.Predicate match) {
+        return jdbcTemplate.queryForList("SELECT netid FROM student WHERE " + match.sql(), String.class,
+                match.args());
+    }
+}